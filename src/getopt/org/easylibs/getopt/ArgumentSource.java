@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A source of command line arguments, read one at a time. Getopt only pulls
+ * arguments from the source as its scan advances, so a source does not have to
+ * produce all of its arguments up front, see
+ * {@link PosixGetopt#setArgs(ArgumentSource)}.
+ */
+public interface ArgumentSource {
+
+	/** The default limit on how deeply response files may be nested. */
+	int DEFAULT_MAX_RESPONSE_FILE_DEPTH = 16;
+
+	/**
+	 * Creates a source over an array of arguments.
+	 *
+	 * @param args the arguments
+	 * @return the argument source
+	 */
+	static ArgumentSource of(CharSequence... args) {
+		return new ArraySource(Objects.requireNonNull(args, "args"));
+	}
+
+	/**
+	 * Creates a source over NUL delimited arguments encoded in UTF-8, see
+	 * {@link #ofNulDelimited(ByteBuffer, Charset)}.
+	 *
+	 * @param bytes the bytes
+	 * @return the argument source
+	 */
+	static ArgumentSource ofNulDelimited(ByteBuffer bytes) {
+		return ofNulDelimited(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates a source over NUL delimited arguments, such as the output of
+	 * {@code find -print0} or the contents of {@code /proc/<pid>/cmdline}. The
+	 * arguments are the remaining bytes of the buffer, which may be a heap, direct
+	 * or mapped buffer, split on NUL bytes. A final NUL is optional. The buffer's
+	 * position and limit are not modified, but its contents must not change while
+	 * the source and its arguments are in use.
+	 * 
+	 * <p>
+	 * The buffer is scanned lazily, one argument at a time. Arguments consisting
+	 * only of ASCII bytes, which includes all option names, are read directly from
+	 * the buffer and are only decoded to strings if they are requested as such,
+	 * for example as an option argument or operand. Any other argument is decoded
+	 * using the charset, which must be ASCII compatible.
+	 * </p>
+	 *
+	 * @param bytes   the bytes
+	 * @param charset the charset, such as UTF-8
+	 * @return the argument source
+	 */
+	static ArgumentSource ofNulDelimited(ByteBuffer bytes, Charset charset) {
+		Objects.requireNonNull(bytes, "bytes");
+		Objects.requireNonNull(charset, "charset");
+
+		return new NulDelimitedSource(bytes, charset);
+	}
+
+	/**
+	 * Creates a source which expands {@code @path} response file arguments of the
+	 * source, using UTF-8 and the default nesting limit.
+	 *
+	 * @param source the source
+	 * @return the argument source
+	 * @see #withResponseFiles(ArgumentSource, Charset, int)
+	 */
+	static ArgumentSource withResponseFiles(ArgumentSource source) {
+		return withResponseFiles(source, StandardCharsets.UTF_8, DEFAULT_MAX_RESPONSE_FILE_DEPTH);
+	}
+
+	/**
+	 * Creates a source which expands {@code @path} response file arguments of the
+	 * source. As with GCC, each {@code @path} argument naming a readable file is
+	 * replaced with the arguments read from the file. Arguments in the file are
+	 * separated by whitespace, may be quoted with single or double quotes and any
+	 * character may be escaped with a backslash. Response files may themselves
+	 * contain {@code @path} arguments, up to the nesting limit. An
+	 * {@code @path} argument which does not name a regular file is passed through
+	 * unchanged.
+	 * 
+	 * <p>
+	 * Response files are memory mapped, in windows for very large files, and
+	 * tokenized incrementally as arguments are requested. Arguments made up of
+	 * only ASCII chars, with no quotes or escapes, are views over the mapped file
+	 * which are only decoded to strings if they are requested as such, so a large
+	 * file is never copied into memory as a whole. Other arguments are decoded
+	 * using the charset, which must be ASCII compatible.
+	 * </p>
+	 *
+	 * @param source   the source
+	 * @param charset  the charset of the response files, such as UTF-8
+	 * @param maxDepth the maximum number of nested response files
+	 * @return the argument source
+	 */
+	static ArgumentSource withResponseFiles(ArgumentSource source, Charset charset, int maxDepth) {
+		Objects.requireNonNull(source, "source");
+		Objects.requireNonNull(charset, "charset");
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("maxDepth " + maxDepth);
+		}
+
+		return new ResponseFileSource(source, charset, maxDepth);
+	}
+
+	/**
+	 * Reads the next argument.
+	 *
+	 * @return the argument, or null if there are no more arguments
+	 * @throws UncheckedIOException if the arguments could not be read
+	 */
+	CharSequence next() throws UncheckedIOException;
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A char sequence view over a range of ASCII bytes in a buffer. Chars are read
+ * directly from the bytes, so the view can be classified and matched against
+ * option names without decoding. A string is only created when
+ * {@link #toString()} is called and is then cached.
+ */
+final class AsciiBytes implements CharSequence {
+
+	/** The bytes. */
+	private final ByteBuffer bytes;
+
+	/** The offset of the first byte in the buffer. */
+	private final int offset;
+
+	/** The length. */
+	private final int length;
+
+	/** The decoded string. */
+	private String string;
+
+	/**
+	 * Instantiates a new view over ASCII bytes.
+	 *
+	 * @param bytes  the bytes
+	 * @param offset the offset of the first byte, an absolute buffer index
+	 * @param length the number of bytes
+	 */
+	AsciiBytes(ByteBuffer bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * Char at.
+	 *
+	 * @param index the index
+	 * @return the char
+	 */
+	@Override
+	public char charAt(int index) {
+		if ((index < 0) || (index >= length)) {
+			throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+		}
+
+		return (char) bytes.get(offset + index);
+	}
+
+	/**
+	 * Length.
+	 *
+	 * @return the int
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Sub sequence.
+	 *
+	 * @param start the start
+	 * @param end   the end
+	 * @return the char sequence
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if ((start < 0) || (end > length) || (start > end)) {
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+		}
+
+		return new AsciiBytes(bytes, offset + start, end - start);
+	}
+
+	/**
+	 * To string.
+	 *
+	 * @return the string
+	 */
+	@Override
+	public String toString() {
+		if (string == null) {
+			final byte[] b = new byte[length];
+			for (int i = 0; i < length; i++) {
+				b[i] = bytes.get(offset + i);
+			}
+
+			string = new String(b, StandardCharsets.US_ASCII);
+		}
+
+		return string;
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+/**
+ * A reusable char sequence view over a range of another char sequence. Getopt
+ * uses a single slice to hand out embedded option arguments, such as the
+ * {@code 123} of {@code --count=123}, without copying them out of the arg.
+ * The slice is only valid until the next getopt call.
+ */
+final class CharSlice implements CharSequence {
+
+	/** The chars. */
+	private CharSequence chars;
+
+	/** The start. */
+	private int start;
+
+	/** The length. */
+	private int length;
+
+	/**
+	 * Points the slice at a new range.
+	 *
+	 * @param chars the chars
+	 * @param start the start, inclusive
+	 * @param end   the end, exclusive
+	 * @return this slice
+	 */
+	CharSlice set(CharSequence chars, int start, int end) {
+		this.chars = chars;
+		this.start = start;
+		this.length = end - start;
+
+		return this;
+	}
+
+	/**
+	 * Char at.
+	 *
+	 * @param index the index
+	 * @return the char
+	 */
+	@Override
+	public char charAt(int index) {
+		if ((index < 0) || (index >= length)) {
+			throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+		}
+
+		return chars.charAt(start + index);
+	}
+
+	/**
+	 * Length.
+	 *
+	 * @return the int
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Sub sequence, which is not a reused slice.
+	 *
+	 * @param start the start
+	 * @param end   the end
+	 * @return the char sequence
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if ((start < 0) || (end > length) || (start > end)) {
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+		}
+
+		return chars.subSequence(this.start + start, this.start + end);
+	}
+
+	/**
+	 * To string.
+	 *
+	 * @return the string
+	 */
+	@Override
+	public String toString() {
+		return chars.subSequence(start, start + length).toString();
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+/**
+ * An event produced while iterating over a command line with
+ * {@link PosixGetopt#iterator()} or {@link PosixGetopt#stream()}. Option events
+ * are produced first, in command line order, followed by operand events once
+ * all of the options have been scanned.
+ * 
+ * <p>
+ * Events are flyweights, the iterator returns the same instance on every call
+ * and updates it in place. An event is only valid until the next event is
+ * requested; use {@link #copy()} to retain one.
+ * </p>
+ */
+public final class GetoptEvent {
+
+	/**
+	 * The kind of event.
+	 */
+	public enum Kind {
+
+		/** An option, short or long, along with its argument if any. */
+		OPTION,
+
+		/** A non-option argument. */
+		OPERAND,
+
+		/** An unrecognized option or an option missing its required argument. */
+		ERROR,
+	}
+
+	/** The kind. */
+	private Kind kind;
+
+	/** The code, as returned by getopt. */
+	private char code;
+
+	/** The short option char. */
+	private char optionChar;
+
+	/** The long option. */
+	private PosixLongOption longOption;
+
+	/** The argument, converted to a string only when requested. */
+	private CharSequence argument;
+
+	/** The match, converted to a string only when requested. */
+	private CharSequence match;
+
+	/** The index. */
+	private int index;
+
+	/**
+	 * Instantiates a new, empty, getopt event.
+	 */
+	GetoptEvent() {
+	}
+
+	/**
+	 * Copies this event. The copy is not reused by the iterator.
+	 *
+	 * @return the copy
+	 */
+	public GetoptEvent copy() {
+		return new GetoptEvent().set(kind, code, optionChar, longOption, getArgument(), getMatch(), index);
+	}
+
+	/**
+	 * Gets the argument. For options this is the option argument, or null if the
+	 * option has no argument. For operands it is the operand itself.
+	 *
+	 * @return the argument
+	 */
+	public String getArgument() {
+		return (argument == null) ? null : argument.toString();
+	}
+
+	/**
+	 * Gets the argument as chars, without creating a string. The chars may be a
+	 * view into the arg the event was produced from, which is reused, and are
+	 * only valid until the next event is requested.
+	 *
+	 * @return the argument chars, or null
+	 */
+	public CharSequence getArgumentChars() {
+		return argument;
+	}
+
+	/**
+	 * Gets the code returned by getopt for this event. For options this is the
+	 * short option char or {@link PosixGetopt#LONG_OPT}. For errors this is
+	 * {@link PosixGetopt#ERROR_UNRECOGNIZED_OPT} or
+	 * {@link PosixGetopt#ERROR_MISSING_ARG}.
+	 *
+	 * @return the code
+	 */
+	public char getCode() {
+		return code;
+	}
+
+	/**
+	 * Gets the index into the args of the argument this event was produced from.
+	 * Operands are produced after the args have been permuted, if permutation is
+	 * enabled, so their indexes refer to the rearranged args.
+	 *
+	 * @return the index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Gets the kind.
+	 *
+	 * @return the kind
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Gets the long option matched, or for errors the long option that was missing
+	 * its argument.
+	 *
+	 * @return the long option, or null if not a long option
+	 */
+	public PosixLongOption getLongOption() {
+		return longOption;
+	}
+
+	/**
+	 * Gets the option matched as a string, as with {@link PosixGetopt#optmatch()}.
+	 * This is set for long options and for errors.
+	 *
+	 * @return the match, or null
+	 */
+	public String getMatch() {
+		return (match == null) ? null : match.toString();
+	}
+
+	/**
+	 * Gets the short option char the event relates to, as with
+	 * {@link PosixGetopt#optchar()}, for errors.
+	 *
+	 * @return the option char, 0 if none
+	 */
+	public char getOptionChar() {
+		return optionChar;
+	}
+
+	/**
+	 * Checks if is error.
+	 *
+	 * @return true, if is error
+	 */
+	public boolean isError() {
+		return kind == Kind.ERROR;
+	}
+
+	/**
+	 * Sets all of the event fields.
+	 *
+	 * @param kind       the kind
+	 * @param code       the code
+	 * @param optionChar the option char
+	 * @param longOption the long option
+	 * @param argument   the argument
+	 * @param match      the match
+	 * @param index      the index
+	 * @return this event
+	 */
+	GetoptEvent set(Kind kind, char code, char optionChar, PosixLongOption longOption, CharSequence argument,
+			CharSequence match, int index) {
+		this.kind = kind;
+		this.code = code;
+		this.optionChar = optionChar;
+		this.longOption = longOption;
+		this.argument = argument;
+		this.match = match;
+		this.index = index;
+
+		return this;
+	}
+
+	/**
+	 * To string.
+	 *
+	 * @return the string
+	 */
+	@Override
+	public String toString() {
+		return "GetoptEvent [kind=" + kind
+				+ ", index=" + index
+				+ ", match=" + match
+				+ ", argument=" + argument
+				+ "]";
+	}
+}
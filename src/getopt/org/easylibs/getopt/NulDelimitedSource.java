@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * An argument source over a buffer of NUL terminated, or NUL separated,
+ * entries. The buffer is scanned one entry at a time as args are requested.
+ * Entries made up of only ASCII bytes are returned as views over the buffer and
+ * are never decoded unless read as strings, other entries are decoded with the
+ * charset.
+ * 
+ * @see ArgumentSource#ofNulDelimited(ByteBuffer, Charset)
+ */
+final class NulDelimitedSource implements ArgumentSource {
+
+	/** The bytes. */
+	private final ByteBuffer bytes;
+
+	/** The charset of entries containing non-ASCII bytes. */
+	private final Charset charset;
+
+	/** The absolute index of the next entry. */
+	private int position;
+
+	/** The absolute index of the end of the entries. */
+	private final int limit;
+
+	/**
+	 * Instantiates a new NUL delimited source over the remaining bytes of the
+	 * buffer. The buffer's position and limit are not modified.
+	 *
+	 * @param bytes   the bytes
+	 * @param charset the charset
+	 */
+	NulDelimitedSource(ByteBuffer bytes, Charset charset) {
+		this.bytes = bytes;
+		this.charset = charset;
+		this.position = bytes.position();
+		this.limit = bytes.limit();
+	}
+
+	/**
+	 * Next.
+	 *
+	 * @return the next argument or null
+	 */
+	@Override
+	public CharSequence next() {
+		if (position >= limit) {
+			return null;
+		}
+
+		final int start = position;
+		boolean ascii = true;
+
+		int end = start;
+		for (; end < limit; end++) {
+			final byte b = bytes.get(end);
+			if (b == 0) {
+				break;
+			}
+
+			ascii &= (b > 0);
+		}
+
+		position = end + 1;
+
+		if (ascii) {
+			return new AsciiBytes(bytes, start, end - start);
+		}
+
+		final byte[] b = new byte[end - start];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = bytes.get(start + i);
+		}
+
+		return new String(b, charset);
+	}
+
+}
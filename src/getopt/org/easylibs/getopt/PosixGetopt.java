@@ -24,10 +24,15 @@
 package org.easylibs.getopt;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -35,25 +40,56 @@ import java.util.function.Consumer;
  * getop_long() functions are implemented through the appropriate use of the
  * correct constructor. Unlike unix call implementation, all options are parsed
  * throug a single call to {@link #getopt} method.
+ * <p>
+ * As with GNU {@code getopt_long()}, a long option may be abbreviated on the
+ * command line to any prefix of its name that is unique among all of the long
+ * options, for example {@code --verb} for {@code --verbose}. An exact name
+ * match always takes precedence over an abbreviation.
+ * </p>
+ * <p>
+ * Besides the C style {@link #getopt} loop, the command line can be consumed
+ * as a sequence of {@link GetoptEvent}s through {@link #iterator()},
+ * {@link #spliterator()} or {@link #stream()}.
+ * </p>
  * 
  * @see <a href="https://linux.die.net/man/3/getopt">getopt_long(3)</a>
  */
 public final class PosixGetopt {
 
 	/**
-	 * The Class Arguments.
+	 * The Class Arguments. Operands, the non-option arguments, are skipped over
+	 * while scanning and recorded as ranges of indexes into the args array. When
+	 * all of the options have been scanned, and args permutation is enabled, the
+	 * args array is rearranged once so that all of the operands follow the
+	 * options. When reading from an argument source, args are only pulled from
+	 * the source as the scan reaches them.
 	 */
 	private class Arguments {
 
-		/** The args. */
-		private final String[] args;
+		/** The args read so far. */
+		private CharSequence[] args;
 
-		/** The processed. */
-		private int processed = 0;
+		/** The number of args read so far. */
+		private int length;
+
+		/** The source of more args, null once exhausted or if none. */
+		private ArgumentSource source;
+
+		/** The operand ranges, pairs of start and end indexes. */
+		private int[] ranges = new int[8];
+
+		/** The number of values used in the ranges array. */
+		private int rangesLength;
+
+		/** The option scanning has completed. */
+		private boolean done;
 
 		/** The code. */
 		private char code;
 
+		/** The token kinds of args, classified once as each arg is read. */
+		private final PosixLexer lexer;
+
 		/**
 		 * Instantiates a new arguments.
 		 *
@@ -62,23 +98,140 @@ public final class PosixGetopt {
 		public Arguments(String[] args) {
 			super();
 			this.args = args;
+			this.length = args.length;
+			this.lexer = new PosixLexer(args);
+		}
 
+		/**
+		 * Instantiates a new arguments which reads args from a source.
+		 *
+		 * @param source the source
+		 */
+		public Arguments(ArgumentSource source) {
+			super();
+			this.args = new CharSequence[16];
+			this.source = source;
+			this.lexer = new PosixLexer();
 		}
 
 		/**
-		 * Advance double dash.
+		 * Checks if an arg is available at the index, reading more args from the
+		 * source as needed.
+		 *
+		 * @param index the index
+		 * @return true, if the arg at index exists
 		 */
-		public void advanceDoubleDash() {
-			optind++;
+		private boolean has(int index) {
+			while ((index >= length) && (source != null)) {
+				final CharSequence arg = source.next();
+				if (arg == null) {
+					source = null;
+					break;
+				}
+
+				if (length == args.length) {
+					args = Arrays.copyOf(args, length * 2);
+				}
+
+				args[length++] = arg;
+				lexer.add(arg);
+			}
+
+			return (index >= 0) && (index < length);
+		}
+
+		/**
+		 * Reads all of the remaining args from the source.
+		 */
+		private void readAll() {
+			has(Integer.MAX_VALUE);
+		}
+
+		/**
+		 * Adds a range of operands, merging with the last range if adjacent.
+		 *
+		 * @param start the start index, inclusive
+		 * @param end   the end index, exclusive
+		 */
+		private void addOperands(int start, int end) {
+			if ((rangesLength > 0) && (ranges[rangesLength - 1] == start)) {
+				ranges[rangesLength - 1] = end;
+				return;
+			}
+
+			if (rangesLength == ranges.length) {
+				ranges = Arrays.copyOf(ranges, ranges.length * 2);
+			}
+
+			ranges[rangesLength++] = start;
+			ranges[rangesLength++] = end;
+		}
+
+		/**
+		 * Completes option scanning. If permuting, the args array is rearranged so
+		 * that all the options come first followed by all of the operands, in their
+		 * original order, and the index is set to the first operand. Otherwise the
+		 * args array is left untouched and the index is set to the end of args.
+		 */
+		private void finish() {
+			done = true;
 			nextchar = 0;
-			processed = args.length;
+
+			readAll();
+
+			if (!permute || (rangesLength == 0)) {
+				optind = length;
+				return;
+			}
+
+			int count = 0;
+			for (int r = 0; r < rangesLength; r += 2) {
+				count += ranges[r + 1] - ranges[r];
+			}
+
+			final CharSequence[] operands = new CharSequence[count];
+			int write = 0;
+			int read = 0;
+			int o = 0;
+
+			for (int r = 0; r < rangesLength; r += 2) {
+				final int start = ranges[r];
+				final int end = ranges[r + 1];
+
+				while (read < start) {
+					args[write++] = args[read++];
+				}
+
+				System.arraycopy(args, start, operands, o, end - start);
+				o += end - start;
+				read = end;
+			}
+
+			while (read < length) {
+				args[write++] = args[read++];
+			}
+
+			System.arraycopy(operands, 0, args, write, count);
+
+			optind = write;
+			ranges[0] = write;
+			ranges[1] = length;
+			rangesLength = 2;
+		}
+
+		/**
+		 * Gets the operand ranges.
+		 *
+		 * @return copy of the ranges
+		 */
+		public int[] operandRanges() {
+			return Arrays.copyOf(ranges, rangesLength);
 		}
 
 		/**
 		 * Advance long no argument.
 		 */
 		public void advanceLongNoArgument() {
-			processed++;
 			optind++;
 			nextchar = 0;
 		}
@@ -90,12 +243,10 @@ public final class PosixGetopt {
 
 			if (hasLongEmbededArgument()) {
 
-				processed++;
 				optind++;
 				nextchar = 0;
 
 			} else {
-				processed += 2;
 				optind += 2;
 				nextchar = 0;
 			}
@@ -109,7 +260,6 @@ public final class PosixGetopt {
 			nextchar++;
 
 			if (nextchar >= next().length()) {
-				processed++;
 				optind++;
 				nextchar = 0;
 			}
@@ -122,12 +272,10 @@ public final class PosixGetopt {
 		public void advanceShortOnArgument() {
 			if (hasShortEmbededArgument()) {
 
-				processed++;
 				optind++;
 				nextchar = 0;
 
 			} else {
-				processed += 2;
 				optind += 2;
 				nextchar = 0;
 			}
@@ -138,7 +286,7 @@ public final class PosixGetopt {
 		 *
 		 * @return the argument
 		 */
-		public String getArgument() {
+		public CharSequence getArgument() {
 			return hasShortEmbededArgument() ? getShortEmbededArgument() : getSeparateArgument();
 		}
 
@@ -147,8 +295,8 @@ public final class PosixGetopt {
 		 *
 		 * @return the embeded argument
 		 */
-		public String getShortEmbededArgument() {
-			return next().substring(2);
+		public CharSequence getShortEmbededArgument() {
+			return slice.set(next(), 2, next().length());
 		}
 
 		/**
@@ -156,7 +304,7 @@ public final class PosixGetopt {
 		 *
 		 * @return the long argument
 		 */
-		public String getLongArgument() {
+		public CharSequence getLongArgument() {
 			return hasLongEmbededArgument() ? getLongEmbededArgument() : getSeparateArgument();
 		}
 
@@ -165,24 +313,35 @@ public final class PosixGetopt {
 		 *
 		 * @return the long embeded argument
 		 */
-		public String getLongEmbededArgument() {
-			String[] c = next().substring(2).split("=", 2);
-			if (c.length != 2) {
+		public CharSequence getLongEmbededArgument() {
+			final int pos = equalsPosition();
+			if (pos == -1) {
 				throw new IllegalStateException();
 			}
 
-			return c[1];
+			return slice.set(next(), pos + 1, next().length());
 		}
 
 		/**
-		 * Gets the long option.
+		 * Gets the end of the long option name within the current arg, which is the
+		 * position of the first '=' or the arg length. The name itself starts at 2,
+		 * right after the "--".
 		 *
-		 * @return the long option
+		 * @return the end of the long option name, exclusive
 		 */
-		public String getLongOption() {
-			String[] c = next().substring(2).split("=");
+		public int getLongOptionEnd() {
+			final int pos = equalsPosition();
+
+			return (pos == -1) ? next().length() : pos;
+		}
 
-			return c[0];
+		/**
+		 * Gets the position of the first '=' in the current long option arg.
+		 *
+		 * @return the position, or -1 if there is no '='
+		 */
+		private int equalsPosition() {
+			return lexer.equalsPosition(optind);
 		}
 
 		/**
@@ -190,7 +349,7 @@ public final class PosixGetopt {
 		 *
 		 * @return the separate argument
 		 */
-		public String getSeparateArgument() {
+		public CharSequence getSeparateArgument() {
 			return args[optind + 1];
 		}
 
@@ -231,7 +390,7 @@ public final class PosixGetopt {
 		 * @return true, if successful
 		 */
 		public boolean hasLongEmbededArgument() {
-			return next().indexOf('=') != -1;
+			return equalsPosition() != -1;
 		}
 
 		/**
@@ -243,7 +402,7 @@ public final class PosixGetopt {
 		 */
 		public boolean hasNextOption(boolean isShortOption, boolean isLongoption) {
 
-			while ((optind >= 0) && (optind < args.length) && (processed < args.length)) {
+			while (!done && (optind >= 0) && has(optind)) {
 
 				if (isLongoption && isLongOption()) {
 					return true;
@@ -252,15 +411,31 @@ public final class PosixGetopt {
 					return true;
 				}
 
-				if (shortOptions.isPosixlyCorrect()) {
+				/* Double dash ends option scanning, it and all that follow are operands */
+				if (isEmptyDoubleDash()) {
+					readAll();
+					addOperands(optind, length);
+					optind = length;
+					break;
+				}
+
+				if (isPosixlyCorrect()) {
 
-					shortOptions.error("Error: invalid non-option encountered%n");
+					error("Error: invalid non-option encountered%n");
 
-					processed = args.length;
+					readAll();
+					addOperands(optind, length);
+					optind = length;
 					break;
 				}
 
-				moveNonOptionToEnd();
+				addOperands(optind, optind + 1);
+				optind++;
+				nextchar = 0;
+			}
+
+			if (!done) {
+				finish();
 			}
 
 			code = NO_MORE_OPTIONS;
@@ -274,9 +449,9 @@ public final class PosixGetopt {
 		 */
 		public boolean hasSeparateArgument() {
 			return ((optind + 1) >= 0)
-					&& (optind < args.length)
+					&& has(optind + 1)
 					&& isShortOptionInCorrectPosition()
-					&& !args[optind + 1].startsWith("-");
+					&& (lexer.kind(optind + 1) == PosixLexer.OPERAND);
 		}
 
 		/**
@@ -286,8 +461,8 @@ public final class PosixGetopt {
 		 */
 		public boolean hasSeparateLongArgument() {
 			return ((optind + 1) >= 0)
-					&& ((optind + 1) < args.length)
-					&& !args[optind + 1].startsWith("-");
+					&& has(optind + 1)
+					&& (lexer.kind(optind + 1) == PosixLexer.OPERAND);
 		}
 
 		/**
@@ -305,7 +480,7 @@ public final class PosixGetopt {
 		 * @return true, if is empty double dash
 		 */
 		public boolean isEmptyDoubleDash() {
-			return "--".equals(next());
+			return lexer.kind(optind) == PosixLexer.DOUBLE_DASH;
 		}
 
 		/**
@@ -314,7 +489,7 @@ public final class PosixGetopt {
 		 * @return true, if is long option
 		 */
 		public boolean isLongOption() {
-			return next().startsWith("--") && next().length() > 2;
+			return lexer.kind(optind) == PosixLexer.LONG;
 		}
 
 		/**
@@ -324,7 +499,7 @@ public final class PosixGetopt {
 		 */
 		public boolean isShortOptionInCorrectPosition() {
 			return (optind >= 0)
-					&& (optind < args.length)
+					&& (optind < length)
 					&& ((nextchar == 1) || (nextchar == next().length() - 1));
 		}
 
@@ -334,26 +509,7 @@ public final class PosixGetopt {
 		 * @return true, if is short option
 		 */
 		public boolean isShortOption() {
-			return next().charAt(0) == '-' && next().length() > 1 && next().charAt(1) != '-';
-		}
-
-		/**
-		 * Move non option to end.
-		 */
-		private void moveNonOptionToEnd() {
-			final boolean isLastArg = (optind == args.length - 1);
-
-			if (!isLastArg) {
-				String arg = args[optind];
-				for (int i = optind; i < (args.length - 1); i++) {
-					args[i] = args[i + 1];
-				}
-
-				args[args.length - 1] = arg;
-			}
-
-			processed++;
-			nextchar = 0;
+			return lexer.kind(optind) == PosixLexer.SHORT;
 		}
 
 		/**
@@ -361,19 +517,117 @@ public final class PosixGetopt {
 		 *
 		 * @return the string
 		 */
-		public String next() {
+		public CharSequence next() {
 			return args[optind];
 		}
 
+		/**
+		 * Skips over the current option, without consuming any argument. Used to
+		 * move past an option which getopt reported as an error.
+		 */
+		public void skipOption() {
+			if ((optind < 0) || (optind >= length)) {
+				return;
+			}
+
+			if (isLongOption()) {
+				advanceLongNoArgument();
+			} else {
+				advanceShortNoArgument();
+			}
+		}
+
 	}
 
 	/**
-	 * The Class LongOptions.
+	 * The long options, compiled into a trie keyed by option name chars. Every
+	 * trie node also records the single option reachable through its prefix, or
+	 * that the prefix is ambiguous, so GNU style unique prefix abbreviations are
+	 * resolved while walking the name without any further search. The trie is
+	 * immutable and may be shared between getopt instances.
 	 */
-	private class LongOptions {
+	private static final class LongOptions {
+
+		/**
+		 * A trie node.
+		 */
+		private static final class Node {
+
+			/** Sorted child node chars. */
+			private char[] keys = new char[0];
+
+			/** Child nodes, in the same order as keys. */
+			private Node[] children = new Node[0];
+
+			/** The option whose name ends at this node. */
+			private PosixLongOption exact;
+
+			/** The only option whose name starts with this node's prefix. */
+			private PosixLongOption unique;
+
+			/** More than one option name starts with this node's prefix. */
+			private boolean ambiguous;
+
+			/**
+			 * Gets the child node.
+			 *
+			 * @param ch the ch
+			 * @return the child or null
+			 */
+			private Node child(char ch) {
+				final int pos = Arrays.binarySearch(keys, ch);
+
+				return (pos < 0) ? null : children[pos];
+			}
+
+			/**
+			 * Gets the child node, adding a new one if it does not exist.
+			 *
+			 * @param ch the ch
+			 * @return the child
+			 */
+			private Node childOrAdd(char ch) {
+				int pos = Arrays.binarySearch(keys, ch);
+				if (pos >= 0) {
+					return children[pos];
+				}
+
+				pos = -(pos + 1);
+
+				final char[] k = new char[keys.length + 1];
+				System.arraycopy(keys, 0, k, 0, pos);
+				System.arraycopy(keys, pos, k, pos + 1, keys.length - pos);
+				k[pos] = ch;
 
-		/** The options. */
-		private final List<PosixLongOption> options;
+				final Node[] c = new Node[children.length + 1];
+				System.arraycopy(children, 0, c, 0, pos);
+				System.arraycopy(children, pos, c, pos + 1, children.length - pos);
+				c[pos] = new Node();
+
+				this.keys = k;
+				this.children = c;
+
+				return c[pos];
+			}
+
+			/**
+			 * Record an option reachable through this node's prefix.
+			 *
+			 * @param option the option
+			 */
+			private void reach(PosixLongOption option) {
+				if ((unique == null) && !ambiguous) {
+					unique = option;
+
+				} else if (unique != option) {
+					unique = null;
+					ambiguous = true;
+				}
+			}
+		}
+
+		/** The root. */
+		private final Node root = new Node();
 
 		/**
 		 * Instantiates a new long options.
@@ -381,149 +635,371 @@ public final class PosixGetopt {
 		 * @param options the options
 		 */
 		private LongOptions(List<PosixLongOption> options) {
-			this.options = options;
+			for (final PosixLongOption option : options) {
+				add(option);
+			}
 		}
 
 		/**
-		 * Instantiates a new long options.
+		 * Adds an option to the trie. If the same name is added more than once, the
+		 * first option is kept.
 		 *
-		 * @param options the options
+		 * @param option the option
+		 */
+		private void add(PosixLongOption option) {
+			final String name = option.getName();
+
+			Node node = root;
+			for (int i = 0; i < name.length(); i++) {
+				node = node.childOrAdd(name.charAt(i));
+			}
+
+			if (node.exact != null) {
+				return;
+			}
+
+			node.exact = option;
+
+			node = root;
+			for (int i = 0; i < name.length(); i++) {
+				node = node.child(name.charAt(i));
+				node.reach(option);
+			}
+		}
+
+		/**
+		 * Finds the trie node for the option name, given as a range of chars within a
+		 * larger sequence so that the name never has to be copied out of the arg.
+		 *
+		 * @param name  the chars containing the option name or its abbreviation
+		 * @param start the start of the name, inclusive
+		 * @param end   the end of the name, exclusive
+		 * @return the node, or null if no option name starts with the name
 		 */
-		private LongOptions(PosixLongOption[] options) {
-			this(Arrays.asList(options));
+		private Node find(CharSequence name, int start, int end) {
+			Node node = root;
+			for (int i = start; (node != null) && (i < end); i++) {
+				node = node.child(name.charAt(i));
+			}
+
+			return (node == root) ? null : node;
 		}
 
 		/**
-		 * Error.
+		 * Gets the option matching the name exactly, or the only option the name is an
+		 * unambiguous abbreviation of.
 		 *
-		 * @param fmt  the fmt
-		 * @param args the args
+		 * @param name  the chars containing the option name or its abbreviation
+		 * @param start the start of the name, inclusive
+		 * @param end   the end of the name, exclusive
+		 * @return the option, or null if not found or ambiguous
 		 */
-		private void error(String fmt, Object... args) {
-			if (isPrintError()) {
-				System.err.printf(fmt, args);
+		public PosixLongOption getOption(CharSequence name, int start, int end) {
+			final Node node = find(name, start, end);
+			if (node == null) {
+				return null;
 			}
 
+			return (node.exact != null) ? node.exact : node.unique;
 		}
 
 		/**
-		 * Gets the option.
+		 * Checks if the name is an abbreviation of more than one option and does not
+		 * match any option exactly.
 		 *
-		 * @param optionString the option string
-		 * @return the option
+		 * @param name  the chars containing the option name or its abbreviation
+		 * @param start the start of the name, inclusive
+		 * @param end   the end of the name, exclusive
+		 * @return true, if is ambiguous
 		 */
-		public PosixLongOption getOption(String optionString) {
-			return options.stream()
-					.filter(o -> o.getName().equals(optionString))
-					.findAny()
-					.orElseThrow(IllegalStateException::new);
+		public boolean isAmbiguous(CharSequence name, int start, int end) {
+			final Node node = find(name, start, end);
+
+			return (node != null) && (node.exact == null) && node.ambiguous;
 		}
 
+	}
+
+	/**
+	 * An iterator over getopt events. Options are scanned with getopt, then the
+	 * operands are produced from the operand ranges. After an error the offending
+	 * option is skipped so that iteration always makes progress.
+	 */
+	private class EventIterator implements Iterator<GetoptEvent> {
+
+		/** The event, reused for every call to next. */
+		private final GetoptEvent event = new GetoptEvent();
+
+		/** The event has been prepared but not yet returned. */
+		private boolean ready;
+
+		/** Still scanning for options. */
+		private boolean scanning = true;
+
+		/** The previous event was an error which has not been skipped yet. */
+		private boolean skipPending;
+
+		/** The operand ranges, once scanning has finished. */
+		private int[] ranges;
+
+		/** The current operand range. */
+		private int range;
+
+		/** The index of the next operand. */
+		private int operand = -1;
+
 		/**
-		 * Checks for option.
+		 * Prepares the next event.
 		 *
-		 * @param optionString the option string
-		 * @return true, if successful
+		 * @return true, if an event was prepared
 		 */
-		public boolean hasOption(String optionString) {
-			return options.stream()
-					.filter(o -> o.getName().equals(optionString))
-					.findFirst()
-					.isPresent();
+		private boolean advance() {
+			if (scanning) {
+				if (skipPending) {
+					skipPending = false;
+					args.skipOption();
+				}
+
+				final char code = getopt();
+				if ((code == ERROR_UNRECOGNIZED_OPT) || (code == ERROR_MISSING_ARG)) {
+					skipPending = true;
+					event.set(GetoptEvent.Kind.ERROR, code, opt, longoption, optarg, optmatch, optpos);
+
+					return true;
+
+				} else if (code != NO_MORE_OPTIONS) {
+					event.set(GetoptEvent.Kind.OPTION, code, opt, longoption, optarg, optmatch, optpos);
+
+					return true;
+				}
+
+				scanning = false;
+				ranges = args.operandRanges();
+			}
+
+			while (range < ranges.length) {
+				if (operand == -1) {
+					operand = ranges[range];
+				}
+
+				if (operand < ranges[range + 1]) {
+					final CharSequence arg = args.args[operand];
+					event.set(GetoptEvent.Kind.OPERAND, (char) 0, (char) 0, null, arg, arg, operand++);
+
+					return true;
+				}
+
+				range += 2;
+				operand = -1;
+			}
+
+			return false;
 		}
 
 		/**
-		 * Checks if is prints the error.
+		 * Checks for next.
 		 *
-		 * @return true, if is prints the error
+		 * @return true, if successful
 		 */
-		public boolean isPrintError() {
-			return shortOptions.isPrintError();
+		@Override
+		public boolean hasNext() {
+			if (!ready) {
+				ready = advance();
+			}
+
+			return ready;
 		}
 
+		/**
+		 * Next.
+		 *
+		 * @return the getopt event
+		 */
+		@Override
+		public GetoptEvent next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			ready = false;
+
+			return event;
+		}
 	}
 
 	/**
-	 * The Class ShortOptions.
+	 * The short options, compiled from the optstring into a char indexed table of
+	 * option flags. The table is immutable and may be shared between getopt
+	 * instances.
 	 */
-	private class ShortOptions {
+	private static final class ShortOptions {
 
-		/** The definition. */
-		private final String definition;
+		/** Flag set for every defined option char. */
+		private static final byte PRESENT = 0x01;
 
-		/** The index. */
-		private int index;
+		/** Flag set when the option takes an argument. */
+		private static final byte HAS_ARG = 0x02;
+
+		/** Flag set when the option argument is optional. */
+		private static final byte OPTIONAL_ARG = 0x04;
+
+		/** The size of the fast path table, covers all ASCII chars. */
+		private static final int ASCII_SIZE = 128;
+
+		/** Flags of ASCII option chars. */
+		private final byte[] ascii = new byte[ASCII_SIZE];
+
+		/** Sorted non-ASCII option chars. */
+		private final char[] otherChars;
+
+		/** Flags of non-ASCII option chars, in the same order as other chars. */
+		private final byte[] otherFlags;
+
+		/** The optstring starts with a '+'. */
+		private final boolean posixlyCorrect;
+
+		/** The optstring is non empty and does not start with a ':'. */
+		private final boolean printError;
 
 		/**
-		 * Instantiates a new short options.
+		 * Instantiates new short options by compiling the optstring definition.
 		 *
 		 * @param definition the definition
 		 */
-		public ShortOptions(String definition) {
-			this.definition = definition;
+		private ShortOptions(String definition) {
+			this.posixlyCorrect = !definition.isEmpty() && (definition.charAt(0) == '+');
+			this.printError = !definition.isEmpty() && (definition.charAt(0) != ':');
+
+			final int len = definition.length();
+			int i = 0;
+
+			/* Skip the optstring mode prefix, GNU style "+" or "-" followed by ":" */
+			if ((i < len) && ((definition.charAt(i) == '+') || (definition.charAt(i) == '-'))) {
+				i++;
+			}
+
+			char[] chars = new char[0];
+			byte[] flags = new byte[0];
+
+			while (i < len) {
+				final char ch = definition.charAt(i++);
+				if (ch == ':') {
+					continue;
+				}
+
+				byte f = PRESENT;
+				if ((i < len) && (definition.charAt(i) == ':')) {
+					f |= HAS_ARG;
+					i++;
+
+					if ((i < len) && (definition.charAt(i) == ':')) {
+						f |= OPTIONAL_ARG;
+						i++;
+					}
+				}
+
+				if (ch < ASCII_SIZE) {
+					ascii[ch] = f;
+					continue;
+				}
+
+				int pos = Arrays.binarySearch(chars, ch);
+				if (pos < 0) {
+					pos = -(pos + 1);
+					chars = insert(chars, pos, ch);
+					flags = insert(flags, pos, f);
+				}
+
+				flags[pos] = f;
+			}
+
+			/* '-' as part of an option group has always been accepted */
+			if (ascii['-'] == 0) {
+				ascii['-'] = PRESENT;
+			}
+
+			this.otherChars = chars;
+			this.otherFlags = flags;
 		}
 
 		/**
-		 * Error.
+		 * Insert a byte into array at pos.
 		 *
-		 * @param fmt  the fmt
-		 * @param args the args
+		 * @param array the array
+		 * @param pos   the pos
+		 * @param b     the b
+		 * @return the new array
 		 */
-		private void error(String fmt, Object... args) {
-			if (isPrintError()) {
-				System.err.printf(fmt, args);
-			}
+		private static byte[] insert(byte[] array, int pos, byte b) {
+			final byte[] n = new byte[array.length + 1];
+			System.arraycopy(array, 0, n, 0, pos);
+			System.arraycopy(array, pos, n, pos + 1, array.length - pos);
+			n[pos] = b;
 
+			return n;
 		}
 
 		/**
-		 * Checks for argument.
+		 * Insert a char into array at pos.
 		 *
-		 * @return true, if successful
+		 * @param array the array
+		 * @param pos   the pos
+		 * @param ch    the ch
+		 * @return the new array
 		 */
-		public boolean hasArgument() {
-			return ((index + 1) < definition.length()) && (definition.charAt(index + 1) == ':');
+		private static char[] insert(char[] array, int pos, char ch) {
+			final char[] n = new char[array.length + 1];
+			System.arraycopy(array, 0, n, 0, pos);
+			System.arraycopy(array, pos, n, pos + 1, array.length - pos);
+			n[pos] = ch;
+
+			return n;
 		}
 
 		/**
-		 * Checks for option.
+		 * Gets the option flags for a char.
 		 *
-		 * @param ch the ch
-		 * @return true, if successful
+		 * @param ch the option char
+		 * @return the flags, 0 if the char is not an option
 		 */
-		public boolean hasOption(char ch) {
-			this.index = definition.indexOf(ch);
+		public int flags(char ch) {
+			if (ch < ASCII_SIZE) {
+				return ascii[ch];
+			}
+
+			final int pos = Arrays.binarySearch(otherChars, ch);
 
-			return (this.index != -1) || (ch == '-');
+			return (pos < 0) ? 0 : otherFlags[pos];
 		}
 
 		/**
-		 * Checks if is argument optional.
+		 * Checks for argument.
 		 *
-		 * @return true, if is argument optional
+		 * @param flags the option flags
+		 * @return true, if successful
 		 */
-		public boolean isArgumentOptional() {
-			return ((index + 2) < definition.length())
-					&& (definition.charAt(index + 1) == ':')
-					&& (definition.charAt(index + 2) == ':');
+		public static boolean hasArgument(int flags) {
+			return (flags & HAS_ARG) != 0;
 		}
 
 		/**
-		 * Checks if is posixly correct.
+		 * Checks for option.
 		 *
-		 * @return true, if is posixly correct
+		 * @param flags the option flags
+		 * @return true, if successful
 		 */
-		public boolean isPosixlyCorrect() {
-			return posixlyCorrect || !definition.isEmpty() && (definition.charAt(0) == '+');
+		public static boolean hasOption(int flags) {
+			return (flags & PRESENT) != 0;
 		}
 
 		/**
-		 * Checks if is prints the error.
+		 * Checks if is argument optional.
 		 *
-		 * @return true, if is prints the error
+		 * @param flags the option flags
+		 * @return true, if is argument optional
 		 */
-		public boolean isPrintError() {
-			return (opterr != 0) || !definition.isEmpty() && (definition.charAt(0) != ':');
+		public static boolean isArgumentOptional(int flags) {
+			return (flags & OPTIONAL_ARG) != 0;
 		}
 
 	}
@@ -548,8 +1024,11 @@ public final class PosixGetopt {
 	/** A status code that indicates the option encountered is of the long form. */
 	public final static char LONG_OPT = 0;
 
-	/** The optarg. */
-	private String optarg;
+	/** The optarg, converted to a string only when requested. */
+	private CharSequence optarg;
+
+	/** The reused view of embedded option arguments. */
+	private final CharSlice slice = new CharSlice();
 
 	/** The optind. */
 	private int optind = 0;
@@ -566,17 +1045,26 @@ public final class PosixGetopt {
 	/** The posixly correct. */
 	private boolean posixlyCorrect;
 
+	/** Rearrange the args array so that operands follow the options. */
+	private boolean permute = true;
+
 	/** The args. */
 	private Arguments args;
 
 	/** The short options. */
 	private final ShortOptions shortOptions;
 
-	/** The long options. */
-	private final Optional<LongOptions> longOptions;
+	/** The long options, or null if there are none. */
+	private final LongOptions longOptions;
 
 	/** The optmatch. */
-	private String optmatch;
+	private CharSequence optmatch;
+
+	/** The long option matched by the last getopt call. */
+	private PosixLongOption longoption;
+
+	/** The index of the arg the last option was found in. */
+	private int optpos;
 
 	/**
 	 * The longmatch.
@@ -611,9 +1099,9 @@ public final class PosixGetopt {
 
 		Objects.requireNonNull(optstring, "optstring");
 
-		this.longOptions = Optional.ofNullable(longopts)
-				.filter(list -> !list.isEmpty())
-				.map(LongOptions::new);
+		this.longOptions = ((longopts == null) || longopts.isEmpty())
+				? null
+				: new LongOptions(longopts);
 
 		this.shortOptions = new ShortOptions(optstring);
 	}
@@ -630,6 +1118,25 @@ public final class PosixGetopt {
 		this(optstring, Arrays.asList(longopts));
 	}
 
+	/**
+	 * Instantiates a new posix getopt which shares the compiled short and long
+	 * option tables of the template. The option tables are immutable, so a single
+	 * template can be used to create getopt instances for many command lines,
+	 * including from different threads, without recompiling the option
+	 * definitions. Parsing state and the current command line are not shared.
+	 *
+	 * @param template the getopt whose option tables to use
+	 */
+	public PosixGetopt(PosixGetopt template) {
+		Objects.requireNonNull(template, "template");
+
+		this.shortOptions = template.shortOptions;
+		this.longOptions = template.longOptions;
+		this.posixlyCorrect = template.posixlyCorrect;
+		this.permute = template.permute;
+		this.opterr = template.opterr;
+	}
+
 	/**
 	 * Clear.
 	 */
@@ -638,6 +1145,18 @@ public final class PosixGetopt {
 		optarg = null;
 	}
 
+	/**
+	 * Error.
+	 *
+	 * @param fmt  the fmt
+	 * @param args the args
+	 */
+	private void error(String fmt, Object... args) {
+		if (isPrintError()) {
+			System.err.printf(fmt, args);
+		}
+	}
+
 	/**
 	 * Gets the short option character currently selected.
 	 *
@@ -656,14 +1175,46 @@ public final class PosixGetopt {
 	public char getopt(Consumer<PosixLongOption> longmatch) {
 		Objects.requireNonNull(args, "args; see PosixGetopt.parseArgs");
 
-		if (longOptions.isPresent()) {
-			return scanLongOptions(args, longOptions.get(), Optional.ofNullable(longmatch));
+		if (longOptions != null) {
+			return scanLongOptions(args, longOptions, longmatch);
 
 		} else {
 			return scanShortOptions(args, shortOptions);
 		}
 	}
 
+	/**
+	 * Gets the number of command line args read so far. When the args were set
+	 * from an array, this is always the length of the array. When read from an
+	 * {@link ArgumentSource}, all of the args have been read once
+	 * {@link #NO_MORE_OPTIONS} has been returned.
+	 *
+	 * @return the number of args
+	 */
+	public int argc() {
+		Objects.requireNonNull(args, "args; see PosixGetopt.setArgs");
+
+		return args.length;
+	}
+
+	/**
+	 * Gets a command line arg. If args permutation is enabled, this is the arg
+	 * after any rearrangement, the same as the args array passed to
+	 * {@link #setArgs(String[])}.
+	 *
+	 * @param index the index of the arg, less than {@link #argc()}
+	 * @return the arg
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public String argv(int index) throws IndexOutOfBoundsException {
+		Objects.requireNonNull(args, "args; see PosixGetopt.setArgs");
+		if ((index < 0) || (index >= args.length)) {
+			throw new IndexOutOfBoundsException("index " + index + ", argc " + args.length);
+		}
+
+		return args.args[index].toString();
+	}
+
 	/**
 	 * The current index into the command line argument array supplied. You should
 	 * always check to make sure the index is still within argv array bound with
@@ -689,13 +1240,91 @@ public final class PosixGetopt {
 		return old;
 	}
 
+	/**
+	 * Returns an iterator over the events of the command line set with
+	 * {@link #setArgs(String[])}. All of the options are returned first, in command
+	 * line order, followed by the operands. The "--" which ends option scanning, if
+	 * present, is returned as the first of the trailing operands, the same as with
+	 * {@link #operandRanges()}. Unlike with the {@link #getopt} loop, the iterator
+	 * skips over an option reported as an error, so iteration may continue past
+	 * errors.
+	 * 
+	 * <p>
+	 * The iterator shares the scanning state of this getopt and returns a single,
+	 * reused {@link GetoptEvent}, see {@link GetoptEvent#copy()}.
+	 * </p>
+	 *
+	 * @return the event iterator
+	 */
+	public Iterator<GetoptEvent> iterator() {
+		Objects.requireNonNull(args, "args; see PosixGetopt.setArgs");
+
+		return new EventIterator();
+	}
+
+	/**
+	 * Returns an ordered spliterator over the command line events, see
+	 * {@link #iterator()}.
+	 *
+	 * @return the event spliterator
+	 */
+	public Spliterator<GetoptEvent> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	/**
+	 * Returns a sequential stream of the command line events, see
+	 * {@link #iterator()}. The events are reused, so they must be copied before
+	 * being collected.
+	 *
+	 * @return the event stream
+	 */
+	public Stream<GetoptEvent> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Gets the operands, the non-option arguments, as ranges of indexes into the
+	 * args array. The returned array contains pairs of values, the start index
+	 * (inclusive) followed by the end index (exclusive) of each range. Operands
+	 * are fully known only once {@link #NO_MORE_OPTIONS} has been returned.
+	 * 
+	 * <p>
+	 * When args permutation is enabled, which is the default, the args array has
+	 * been rearranged by then and there is at most a single range, from
+	 * {@link #index()} to the end of the args. When permutation is disabled, the
+	 * args array is left unmodified and the operands may be spread across many
+	 * ranges, in the order they appear on the command line.
+	 * </p>
+	 *
+	 * @return the operand index ranges
+	 * @see #setPermuteArgs(boolean)
+	 */
+	public int[] operandRanges() {
+		Objects.requireNonNull(args, "args; see PosixGetopt.setArgs");
+
+		return args.operandRanges();
+	}
+
+	/**
+	 * Gets the option argument as chars, without creating a string. An argument
+	 * embedded in an option, such as {@code --count=123}, is returned as a reused
+	 * view of the arg which is only valid until the next call to getopt.
+	 *
+	 * @return the option argument chars, or null
+	 */
+	public CharSequence optargChars() {
+		return optarg;
+	}
+
 	/**
 	 * This will return short options argument or null if the argument is optional.
 	 *
 	 * @return the string
 	 */
 	public String optarg() {
-		return optarg;
+		return (optarg == null) ? null : optarg.toString();
 	}
 
 	/**
@@ -714,7 +1343,7 @@ public final class PosixGetopt {
 	 * @return the matched option
 	 */
 	public String optmatch() {
-		return optmatch;
+		return (optmatch == null) ? null : optmatch.toString();
 	}
 
 	/**
@@ -730,12 +1359,31 @@ public final class PosixGetopt {
 		reset();
 	}
 
+	/**
+	 * Sets the source of the command line args. The index into the args is also
+	 * reset back to 0. Args are read from the source only as scanning reaches
+	 * them, or once scanning ends when they all have to be known, such as when
+	 * permuting the args or on a "--". The args read so far are available from
+	 * {@link #argv(int)}.
+	 *
+	 * @param source the source
+	 * @see ArgumentSource#withResponseFiles(ArgumentSource)
+	 */
+	public void setArgs(ArgumentSource source) {
+		Objects.requireNonNull(source, "source");
+		this.args = new Arguments(source);
+		this.optind = 0;
+		reset();
+	}
+
 	/**
 	 * Reset.
 	 */
 	private void reset() {
 		this.optarg = null;
 		this.opt = 0;
+		this.optmatch = null;
+		this.longoption = null;
 	}
 
 	/**
@@ -743,10 +1391,10 @@ public final class PosixGetopt {
 	 *
 	 * @param args      the args
 	 * @param opts      the opts
-	 * @param longmatch the longmatch
+	 * @param longmatch the longmatch, may be null
 	 * @return the char
 	 */
-	private char scanLongOptions(Arguments args, LongOptions opts, Optional<Consumer<PosixLongOption>> longmatch) {
+	private char scanLongOptions(Arguments args, LongOptions opts, Consumer<PosixLongOption> longmatch) {
 
 		reset();
 
@@ -754,26 +1402,29 @@ public final class PosixGetopt {
 			return args.code;
 		}
 
+		this.optpos = optind;
+
 		if (args.isShortOption()) {
 			return scanShortOptions(args, shortOptions);
 		}
 
-		if (args.isEmptyDoubleDash()) {
-			args.advanceDoubleDash();
+		/* The name is resolved in place, a copy is only made for error messages */
+		final CharSequence token = args.next();
+		final int end = args.getLongOptionEnd();
+		final PosixLongOption option = opts.getOption(token, 2, end);
+		this.optmatch = token;
+		if (option == null) {
+			final String optionString = token.subSequence(2, end).toString();
 
-			return 0;
-		}
-
-		final String optionString = args.getLongOption();
-		if (!opts.hasOption(optionString)) {
-
-			opts.error("Error: unrecognized option '%s'%n", optionString);
+			if (opts.isAmbiguous(token, 2, end)) {
+				error("Error: option '%s' is ambiguous%n", optionString);
+			} else {
+				error("Error: unrecognized option '%s'%n", optionString);
+			}
 
 			return ERROR_UNRECOGNIZED_OPT;
 		}
-		this.optmatch = args.next();
-
-		final PosixLongOption option = opts.getOption(optionString);
+		this.longoption = option;
 
 		if (option.hasArgument()) {
 
@@ -785,7 +1436,7 @@ public final class PosixGetopt {
 				args.advanceLongNoArgument();
 
 			} else {
-				opts.error("Error: option '%s' missing required argument%n", optionString);
+				error("Error: option '%s' missing required argument%n", token.subSequence(2, end).toString());
 
 				return ERROR_MISSING_ARG;
 			}
@@ -793,7 +1444,9 @@ public final class PosixGetopt {
 			args.advanceLongNoArgument();
 		}
 
-		longmatch.ifPresent(h -> h.accept(option));
+		if (longmatch != null) {
+			longmatch.accept(option);
+		}
 
 		return option.isShortCodePresent() ? option.getShortCode() : LONG_OPT;
 	}
@@ -813,27 +1466,24 @@ public final class PosixGetopt {
 			return args.code;
 		}
 
-		if (args.isEmptyDoubleDash()) {
-			args.advanceDoubleDash();
-
-			return 0;
-		}
+		this.optpos = optind;
 
 		final char optionChar = args.getShortOptionChar();
-		if (!opts.hasOption(optionChar)) {
+		final int flags = opts.flags(optionChar);
+		if (!ShortOptions.hasOption(flags)) {
 			opt = optionChar;
 			this.optmatch = "" + opt;
 
-			opts.error("Error: unrecognized option '%s'%n", optionChar);
+			error("Error: unrecognized option '%s'%n", optionChar);
 
 			return ERROR_UNRECOGNIZED_OPT;
 		}
 
 		/* a: */
-		if (opts.hasArgument()) {
+		if (ShortOptions.hasArgument(flags)) {
 
 			if (!args.isShortOptionInCorrectPosition()) {
-				opts.error("Error: option '%s' takes an agrument and must be at the end of a group%n",
+				error("Error: option '%s' takes an agrument and must be at the end of a group%n",
 						optionChar);
 
 				opt = optionChar;
@@ -844,11 +1494,11 @@ public final class PosixGetopt {
 				optarg = args.getArgument();
 				args.advanceShortOnArgument();
 
-			} else if (!args.hasShortArgument() && opts.isArgumentOptional()) {
+			} else if (!args.hasShortArgument() && ShortOptions.isArgumentOptional(flags)) {
 				args.advanceShortNoArgument();
 
 			} else {
-				opts.error("Error: option '%s' missing required argument%n",
+				error("Error: option '%s' missing required argument%n",
 						optionChar);
 
 				opt = optionChar;
@@ -862,6 +1512,24 @@ public final class PosixGetopt {
 		return optionChar;
 	}
 
+	/**
+	 * Checks if is posixly correct.
+	 *
+	 * @return true, if is posixly correct
+	 */
+	private boolean isPosixlyCorrect() {
+		return posixlyCorrect || shortOptions.posixlyCorrect;
+	}
+
+	/**
+	 * Checks if is prints the error.
+	 *
+	 * @return true, if is prints the error
+	 */
+	private boolean isPrintError() {
+		return (opterr != 0) || shortOptions.printError;
+	}
+
 	/**
 	 * Sets the posixly correct.
 	 *
@@ -871,6 +1539,21 @@ public final class PosixGetopt {
 		this.posixlyCorrect = b;
 	}
 
+	/**
+	 * Sets whether the args array is permuted. By default, as with GNU getopt,
+	 * operands are skipped over while scanning for options and once all the
+	 * options have been processed the args array is rearranged, in a single
+	 * linear pass, so that all of the operands are at the end of the array
+	 * starting at {@link #index()}. When set to false, the args array supplied
+	 * by the caller is never modified and the operands are only available as
+	 * index ranges, see {@link #operandRanges()}.
+	 *
+	 * @param b true to permute the args array, false to leave it untouched
+	 */
+	public void setPermuteArgs(boolean b) {
+		this.permute = b;
+	}
+
 	/**
 	 * Sets the prints the error.
 	 *
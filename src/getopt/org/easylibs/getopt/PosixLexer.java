@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A lexer which classifies command line arguments into token kinds, in a single
+ * pass, ahead of any option processing. Every argument is inspected
+ * exactly once and its kind, along with the position of the '=' separator of
+ * long options, is recorded in compact parallel arrays. The getopt scanner then
+ * works from the table instead of re-inspecting the argument strings.
+ * 
+ * <p>
+ * The lexer only depends on the shape of each argument, not on any option
+ * definitions, so it can be used by any front end that produces arguments, such
+ * as response files or shell string tokenizers. Arguments may also be added one
+ * at a time, as they are read from an {@link ArgumentSource}.
+ * </p>
+ * 
+ * <table>
+ * <caption>Token kinds</caption>
+ * <tr><th>Kind</th><th>Argument</th></tr>
+ * <tr><td>{@link #OPERAND}</td><td>anything not starting with a '-', including an empty string</td></tr>
+ * <tr><td>{@link #DASH}</td><td>a lone "-", usually standard input</td></tr>
+ * <tr><td>{@link #SHORT}</td><td>"-x..." a group of one or more short options</td></tr>
+ * <tr><td>{@link #LONG}</td><td>"--name" or "--name=value"</td></tr>
+ * <tr><td>{@link #DOUBLE_DASH}</td><td>"--" end of options</td></tr>
+ * </table>
+ */
+public final class PosixLexer {
+
+	/** An argument that does not start with a '-'. */
+	public final static byte OPERAND = 0;
+
+	/** A lone "-" argument. */
+	public final static byte DASH = 1;
+
+	/** A short option or group of short options, "-x...". */
+	public final static byte SHORT = 2;
+
+	/** A long option, "--name" or "--name=value". */
+	public final static byte LONG = 3;
+
+	/** The "--" argument, which ends option scanning. */
+	public final static byte DOUBLE_DASH = 4;
+
+	/**
+	 * Classifies a single argument.
+	 *
+	 * @param arg the argument
+	 * @return the token kind
+	 */
+	public static byte classify(CharSequence arg) {
+		final int len = arg.length();
+
+		if ((len == 0) || (arg.charAt(0) != '-')) {
+			return OPERAND;
+
+		} else if (len == 1) {
+			return DASH;
+
+		} else if (arg.charAt(1) != '-') {
+			return SHORT;
+
+		} else {
+			return (len == 2) ? DOUBLE_DASH : LONG;
+		}
+	}
+
+	/**
+	 * Finds the position of the '=' which separates a long option name from its
+	 * embedded argument.
+	 *
+	 * @param arg the long option argument, starting with "--"
+	 * @return the position, or -1 if there is none
+	 */
+	public static int findEquals(CharSequence arg) {
+		final int len = arg.length();
+		for (int i = 2; i < len; i++) {
+			if (arg.charAt(i) == '=') {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/** The token kinds, one per argument. */
+	private byte[] kinds;
+
+	/** The '=' positions of long options, -1 for all other arguments. */
+	private int[] equals;
+
+	/** The number of arguments classified. */
+	private int size;
+
+	/**
+	 * Instantiates a new, empty, lexer.
+	 */
+	public PosixLexer() {
+		this.kinds = new byte[16];
+		this.equals = new int[16];
+	}
+
+	/**
+	 * Instantiates a new lexer and classifies all of the arguments.
+	 *
+	 * @param args the arguments
+	 */
+	public PosixLexer(CharSequence[] args) {
+		Objects.requireNonNull(args, "args");
+
+		this.kinds = new byte[args.length];
+		this.equals = new int[args.length];
+
+		for (final CharSequence arg : args) {
+			add(arg);
+		}
+	}
+
+	/**
+	 * Classifies the argument and adds it at the end of the table.
+	 *
+	 * @param arg the argument
+	 * @return the index of the argument
+	 */
+	public int add(CharSequence arg) {
+		if (size == kinds.length) {
+			final int capacity = Math.max(16, size * 2);
+			kinds = Arrays.copyOf(kinds, capacity);
+			equals = Arrays.copyOf(equals, capacity);
+		}
+
+		final byte kind = classify(arg);
+		kinds[size] = kind;
+		equals[size] = (kind == LONG) ? findEquals(arg) : -1;
+
+		return size++;
+	}
+
+	/**
+	 * Gets the position of the '=' in a long option argument.
+	 *
+	 * @param index the argument index
+	 * @return the position, or -1 if the argument is not a long option or has no
+	 *         embedded argument
+	 */
+	public int equalsPosition(int index) {
+		return equals[index];
+	}
+
+	/**
+	 * Gets the token kind of an argument.
+	 *
+	 * @param index the argument index
+	 * @return the token kind
+	 */
+	public byte kind(int index) {
+		return kinds[index];
+	}
+
+	/**
+	 * Gets the number of arguments.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.getopt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * An argument source which expands {@code @path} response files found in
+ * another source. Files are opened as their {@code @path} argument is reached,
+ * are memory mapped and are tokenized one argument at a time.
+ * 
+ * @see ArgumentSource#withResponseFiles(ArgumentSource, Charset, int)
+ */
+final class ResponseFileSource implements ArgumentSource {
+
+	/**
+	 * Tokenizes the contents of a single response file. The file is scanned
+	 * directly as bytes, so the charset must be ASCII compatible. Arguments made
+	 * up of only ASCII bytes, with no quotes or escapes, are returned as views
+	 * over the mapped file and are only decoded if read as strings. Other
+	 * arguments are unquoted and decoded as they are reached.
+	 * 
+	 * <p>
+	 * The file is mapped in windows of at most {@link #WINDOW_SIZE} bytes, so
+	 * files larger than a single mapping allows are supported. Each window starts
+	 * at the argument being scanned, so that every argument lies entirely within
+	 * one window.
+	 * </p>
+	 */
+	private static final class Tokenizer {
+
+		/** The size of each mapped window of the file. */
+		private static final int WINDOW_SIZE = 1 << 28;
+
+		/** The path. */
+		private final Path path;
+
+		/** The charset. */
+		private final Charset charset;
+
+		/** The size of the file. */
+		private final long size;
+
+		/** The mapped window of the file. */
+		private ByteBuffer window;
+
+		/** The offset of the window in the file. */
+		private long windowStart;
+
+		/** The position of the next byte in the window. */
+		private int pos;
+
+		/** The start of the argument being scanned in the window. */
+		private int mark;
+
+		/**
+		 * Instantiates a new tokenizer by mapping the first window of the file.
+		 *
+		 * @param path    the path
+		 * @param charset the charset
+		 * @throws UncheckedIOException if the file could not be mapped
+		 */
+		private Tokenizer(Path path, Charset charset) throws UncheckedIOException {
+			this.path = path;
+			this.charset = charset;
+
+			try {
+				this.size = Files.size(path);
+			} catch (IOException e) {
+				throw new UncheckedIOException("response file " + path, e);
+			}
+
+			this.window = map(0, (int) Math.min(size, WINDOW_SIZE));
+		}
+
+		/**
+		 * Maps a window of the file.
+		 *
+		 * @param offset the offset in the file
+		 * @param length the length
+		 * @return the mapped window
+		 * @throws UncheckedIOException if the file could not be mapped
+		 */
+		private ByteBuffer map(long offset, int length) throws UncheckedIOException {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				return channel.map(MapMode.READ_ONLY, offset, length);
+
+			} catch (IOException e) {
+				throw new UncheckedIOException("response file " + path, e);
+			}
+		}
+
+		/**
+		 * Maps the next window of the file, starting at the mark. If the argument
+		 * being scanned already fills the window, the window is grown.
+		 *
+		 * @throws UncheckedIOException if the file could not be mapped or an
+		 *                              argument is too large to map
+		 */
+		private void slide() throws UncheckedIOException {
+			final long start = windowStart + mark;
+			final int scanned = pos - mark;
+			if (scanned == Integer.MAX_VALUE) {
+				throw new UncheckedIOException(new IOException("argument too large in response file " + path));
+			}
+
+			final long length = Math.max(WINDOW_SIZE, 2L * scanned);
+
+			window = map(start, (int) Math.min(size - start, Math.min(length, Integer.MAX_VALUE)));
+			windowStart = start;
+			pos = scanned;
+			mark = 0;
+		}
+
+		/**
+		 * Reads the next byte.
+		 *
+		 * @return the byte, or -1 at the end of the file
+		 */
+		private int read() {
+			if (pos == window.limit()) {
+				if (windowStart + pos >= size) {
+					return -1;
+				}
+
+				slide();
+			}
+
+			return window.get(pos++) & 0xFF;
+		}
+
+		/**
+		 * Checks if a byte is ASCII whitespace.
+		 *
+		 * @param b the byte
+		 * @return true, if whitespace
+		 */
+		private static boolean isWhitespace(int b) {
+			return (b == ' ') || ((b >= '\t') && (b <= '\r'));
+		}
+
+		/**
+		 * Reads the next argument from the file.
+		 *
+		 * @return the argument, or null at the end of the file
+		 */
+		private CharSequence next() {
+			int c;
+			do {
+				mark = pos;
+				c = read();
+			} while ((c != -1) && isWhitespace(c));
+
+			if (c == -1) {
+				return null;
+			}
+
+			mark = pos - 1;
+			boolean plain = true;
+			int quote = 0;
+
+			for (; c != -1; c = read()) {
+				if ((quote == 0) && isWhitespace(c)) {
+					pos--;
+					break;
+
+				} else if (c == '\\') {
+					plain = false;
+					if (read() == -1) {
+						break;
+					}
+
+				} else if (c == quote) {
+					quote = 0;
+
+				} else if ((quote == 0) && ((c == '\'') || (c == '"'))) {
+					plain = false;
+					quote = c;
+
+				} else if (c >= 0x80) {
+					plain = false;
+				}
+			}
+
+			if (plain) {
+				return new AsciiBytes(window, mark, pos - mark);
+			}
+
+			return decode(mark, pos);
+		}
+
+		/**
+		 * Unquotes and decodes an argument.
+		 *
+		 * @param start the start in the window, inclusive
+		 * @param end   the end in the window, exclusive
+		 * @return the argument
+		 */
+		private String decode(int start, int end) {
+			final byte[] b = new byte[end - start];
+			int length = 0;
+			int quote = 0;
+
+			for (int i = start; i < end; i++) {
+				final int c = window.get(i) & 0xFF;
+
+				if (c == '\\') {
+					if (++i < end) {
+						b[length++] = window.get(i);
+					}
+
+				} else if (c == quote) {
+					quote = 0;
+
+				} else if ((quote == 0) && ((c == '\'') || (c == '"'))) {
+					quote = c;
+
+				} else {
+					b[length++] = (byte) c;
+				}
+			}
+
+			return new String(b, 0, length, charset);
+		}
+	}
+
+	/** The source being expanded. */
+	private final ArgumentSource source;
+
+	/** The charset of response files. */
+	private final Charset charset;
+
+	/** The maximum nesting depth. */
+	private final int maxDepth;
+
+	/** The response files being read, the innermost on top. */
+	private final Deque<Tokenizer> files = new ArrayDeque<>();
+
+	/**
+	 * Instantiates a new response file source.
+	 *
+	 * @param source   the source
+	 * @param charset  the charset
+	 * @param maxDepth the max depth
+	 */
+	ResponseFileSource(ArgumentSource source, Charset charset, int maxDepth) {
+		this.source = source;
+		this.charset = charset;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Next.
+	 *
+	 * @return the next argument or null
+	 * @throws UncheckedIOException if a response file could not be read or they
+	 *                              are nested too deeply
+	 */
+	@Override
+	public CharSequence next() throws UncheckedIOException {
+		while (true) {
+			final CharSequence arg = files.isEmpty() ? source.next() : files.peek().next();
+			if (arg == null) {
+				if (files.isEmpty()) {
+					return null;
+				}
+
+				files.pop();
+				continue;
+			}
+
+			if ((arg.length() < 2) || (arg.charAt(0) != '@')) {
+				return arg;
+			}
+
+			final Path path;
+			try {
+				path = Paths.get(arg.subSequence(1, arg.length()).toString());
+			} catch (InvalidPathException e) {
+				return arg;
+			}
+
+			if (!Files.isRegularFile(path)) {
+				return arg;
+			}
+
+			if (files.size() >= maxDepth) {
+				throw new UncheckedIOException(new IOException(
+						"response files nested more than " + maxDepth + " deep at " + path));
+			}
+
+			files.push(new Tokenizer(path, charset));
+		}
+	}
+
+}
@@ -23,7 +23,6 @@
  */
 package org.easylibs.options;
 
-import java.lang.reflect.Array;
 import java.util.Collection;
 
 /**
@@ -45,11 +44,44 @@ import java.util.Collection;
  * mapping can be overriden including different or no accumulators for each
  * type.
  * </p>
+ * 
+ * <p>
+ * The parser accumulates the values of a single parse through a
+ * {@link Builder}, started with {@link #begin()}. Each match appends its value
+ * to the builder and the final value is produced once, when parsing completes.
+ * Accumulators which combine values into a new container, such as arrays, use
+ * this to grow an internal buffer instead of copying all previous values on
+ * every match.
+ * </p>
  *
  * @param <T> the generic type the accumulator will be used on
  */
 public interface Accumulator<T> {
 
+	/**
+	 * Accumulates the values of all of the matches of an option in a single
+	 * parse.
+	 *
+	 * @param <T> the generic type
+	 */
+	interface Builder<T> {
+
+		/**
+		 * Appends the value of another match.
+		 *
+		 * @param value the value
+		 */
+		void append(T value);
+
+		/**
+		 * Produces the accumulated value. Called once, after all values have been
+		 * appended.
+		 *
+		 * @return the accumulated value, or null if nothing was appended
+		 */
+		T finish();
+	}
+
 	/**
 	 * Identity.
 	 *
@@ -66,18 +98,8 @@ public interface Accumulator<T> {
 	 * @param <T> the generic type
 	 * @return the accumulator
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	static <T extends Collection<?>> Accumulator<T> collections() {
-
-		return (a, b) -> {
-			if (a == null) {
-				return b;
-			}
-
-			a.addAll((Collection) b);
-
-			return a;
-		};
+		return new CollectionAccumulator<>();
 	}
 
 	/**
@@ -86,22 +108,30 @@ public interface Accumulator<T> {
 	 * @param <T> the generic type
 	 * @return the accumulator
 	 */
-	@SuppressWarnings("unchecked")
 	static <T> Accumulator<T> array() {
-		return (a, b) -> {
-			if (a == null) {
-				return b;
-			}
+		return new ArrayAccumulator<>();
+	}
 
-			final int a1 = Array.getLength(a);
-			final int b1 = Array.getLength(b);
+	/**
+	 * Begins accumulating the values of a new parse. The default builder applies
+	 * {@link #accumulate(Object, Object)} to every appended value.
+	 *
+	 * @return the builder
+	 */
+	default Builder<T> begin() {
+		return new Builder<T>() {
 
-			final Object c = Array.newInstance(b.getClass().getComponentType(), a1 + b1);
+			private T value;
 
-			System.arraycopy(a, 0, c, 0, a1);
-			System.arraycopy(b, 0, c, a1, b1);
+			@Override
+			public void append(T newValue) {
+				value = accumulate(value, newValue);
+			}
 
-			return (T) c;
+			@Override
+			public T finish() {
+				return value;
+			}
 		};
 	}
 
@@ -98,6 +98,16 @@ import org.easylibs.getopt.PosixGetopt;
  * </code>
  * 
  * <p>
+ * Each {@code Args} is also the {@link ParseResult} of a single parse. Option
+ * values and match counts are kept by the parse result and not by the options
+ * themselves, so the same options can be parsed many times, even concurrently
+ * using a {@link CompiledParser}. The static factory methods of this class
+ * additionally {@link #publish} the result, so that the values can also be read
+ * through {@link Option#getValue()} and are stored into any beans or properties
+ * backing the options.
+ * </p>
+ * 
+ * <p>
  * Implementation Notes: initial release comes with a single implementation of
  * the POSIX/gnu command line argument standard defined in corresponding unix
  * manuals. In the future other parser implementations maybe provided.
@@ -108,7 +118,7 @@ import org.easylibs.getopt.PosixGetopt;
  * @see Options.Builder
  * @see TypeRegistry
  */
-public abstract class Args {
+public abstract class Args implements ParseResult {
 
 	private static Consumer<ArgException> defaultErrorHandler = Args::printError;
 
@@ -124,8 +134,7 @@ public abstract class Args {
 
 	public static Args of(String[] args, Option<?>... options)
 			throws UnrecognizedArgException, InvalidArgException {
-		return new PosixArgs(args, Options.of(options))
-				.parse();
+		return of(args, Options.of(options));
 	}
 
 	/**
@@ -148,8 +157,9 @@ public abstract class Args {
 	 */
 	public static Args of(String[] args, Options options)
 			throws UnrecognizedArgException, InvalidArgException {
-		return new PosixArgs(args, options)
-				.parse();
+		return options.compile()
+				.parse(args)
+				.publish();
 	}
 
 	public static Args of(String[] args, Properties properties)
@@ -201,8 +211,9 @@ public abstract class Args {
 	 *
 	 */
 	public static Optional<Args> ofOptional(String[] args, Options options) {
-		return new PosixArgs(args, options)
-				.parseOptional(defaultErrorHandler);
+		return options.compile()
+				.parseOptional(args, defaultErrorHandler)
+				.map(Args::publish);
 	}
 
 	public static Optional<Args> ofOptional(String[] args, Properties properties) {
@@ -220,6 +231,16 @@ public abstract class Args {
 		System.err.flush();
 	}
 
+	/**
+	 * Gets the global default error handler used by all {@code ofOptional}
+	 * factory methods.
+	 *
+	 * @return the default error handler
+	 */
+	public static Consumer<ArgException> getDefaultErrorHandler() {
+		return defaultErrorHandler;
+	}
+
 	public static void setDefaultErrorHandler(Consumer<ArgException> errorHandler) {
 		Args.defaultErrorHandler = errorHandler;
 	}
@@ -247,14 +268,15 @@ public abstract class Args {
 	 */
 	public void forEach(Consumer<Option<?>> action) {
 		getOptions().stream()
-				.filter(Option::isMatched)
+				.filter(this::isMatched)
 				.forEach(action);
 	}
 
 	/**
-	 * Gets the original argument array. Note, that some parser may rearrange the
-	 * array, such as when unmatched arguments are moved to the end of the array as
-	 * is also the behavior of the unix <em>getopt</em> call.
+	 * Gets the original argument array. The POSIX parser does not rearrange the
+	 * array, unlike the unix <em>getopt</em> call, operands are collected into the
+	 * unmatched args instead. When parsed from an argument source, these are the
+	 * args read from the source.
 	 *
 	 * @return the args
 	 */
@@ -269,16 +291,41 @@ public abstract class Args {
 
 	/**
 	 * Gets all of the matched options. Only options which were found on the command
-	 * line, see {@link Option#isMatched()}, by the parser are returned.
+	 * line, see {@link #isMatched(Option)}, by the parser are returned.
 	 *
 	 * @return the matched options
 	 */
 	public List<Option<?>> getMatchedOptions() {
 		return stream()
-				.filter(Option::isMatched)
+				.filter(this::isMatched)
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Gets the operands, which for this parser are the same as the unmatched args.
+	 *
+	 * @return the operands
+	 * @see #getUnmatchedArgs()
+	 */
+	@Override
+	public List<String> getOperands() {
+		return getUnmatchedArgs();
+	}
+
+	/**
+	 * Gets the named option value from this parse.
+	 *
+	 * @param <T>  the option value type
+	 * @param name the option name
+	 * @param type the option type
+	 * @return the value, or null if the option was not matched
+	 * @throws OptionNotFoundException if no option with the name and type exists
+	 */
+	@Override
+	public <T> T getValue(String name, Class<T> type) throws OptionNotFoundException {
+		return getValue(getOptions().get(name, type));
+	}
+
 	/**
 	 * Gets the options manager currently registered with this parser.
 	 *
@@ -299,17 +346,43 @@ public abstract class Args {
 
 	/**
 	 * Gets all of the unmatched options. All remaining options which were NOT found
-	 * on the command line, see {@link Option#isUnmatched()}, by the parser are
+	 * on the command line, see {@link #isMatched(Option)}, by the parser are
 	 * returned.
 	 *
 	 * @return the unmatched options
 	 */
 	public List<Option<?>> getUnmatchedOptions() {
 		return stream()
-				.filter(Option::isUnmatched)
+				.filter(o -> !isMatched(o))
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Publishes the option values and match counts of this parse to the options.
+	 * After publishing, the values can be read through {@link Option#getValue()}
+	 * and {@link Option#isMatched()} and any beans or java properties backing the
+	 * options are updated. The static factory methods of this class publish
+	 * automatically. Results returned from a {@link CompiledParser} are not
+	 * published, as the options may be shared with other threads parsing at the
+	 * same time.
+	 *
+	 * @return this args for call chaining
+	 * @throws UncheckedArgException if a deferred argument could not be mapped,
+	 *                               see {@link CompiledParser#parseLazy(String[])}
+	 */
+	public abstract Args publish() throws UncheckedArgException;
+
+	/**
+	 * Maps the arguments of all options whose mapping was deferred by
+	 * {@link CompiledParser#parseLazy(String[])}, reporting the first argument
+	 * which can not be mapped. Does nothing if the args were parsed eagerly.
+	 *
+	 * @return this args for call chaining
+	 * @throws InvalidArgException (checked) if an option argument could not be
+	 *                             mapped
+	 */
+	public abstract Args resolveAll() throws InvalidArgException;
+
 	/**
 	 * A stream of all the options currently defined by the registered options
 	 * manager.
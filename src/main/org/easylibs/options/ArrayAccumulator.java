@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.lang.reflect.Array;
+
+/**
+ * The default accumulator for array types, concatenates the arrays of all
+ * matches. Within a parse, arrays are appended to a buffer which grows by
+ * doubling, so that repeated matches cost amortized constant time per element
+ * and the final array is trimmed to size only once.
+ *
+ * @param <T> the array type
+ */
+final class ArrayAccumulator<T> implements Accumulator<T> {
+
+	/**
+	 * The array builder.
+	 */
+	private final class ArrayBuilder implements Builder<T> {
+
+		/** The buffer, or the only array appended so far. */
+		private Object buffer;
+
+		/** The number of elements used in the buffer. */
+		private int size;
+
+		/** The buffer is an appended array, which must not be modified. */
+		private boolean shared;
+
+		/**
+		 * Append.
+		 *
+		 * @param value the value
+		 */
+		@Override
+		public void append(T value) {
+			if (value == null) {
+				return;
+			}
+
+			final int length = Array.getLength(value);
+
+			if (buffer == null) {
+				buffer = value;
+				size = length;
+				shared = true;
+
+				return;
+			}
+
+			final int capacity = Array.getLength(buffer);
+			if (shared || ((size + length) > capacity)) {
+				final Object grown = Array.newInstance(
+						buffer.getClass().getComponentType(),
+						Math.max(size + length, capacity * 2));
+
+				System.arraycopy(buffer, 0, grown, 0, size);
+				buffer = grown;
+				shared = false;
+			}
+
+			System.arraycopy(value, 0, buffer, size, length);
+			size += length;
+		}
+
+		/**
+		 * Finish.
+		 *
+		 * @return the array
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public T finish() {
+			if ((buffer == null) || (Array.getLength(buffer) == size)) {
+				return (T) buffer;
+			}
+
+			final Object array = Array.newInstance(buffer.getClass().getComponentType(), size);
+			System.arraycopy(buffer, 0, array, 0, size);
+
+			return (T) array;
+		}
+	}
+
+	/**
+	 * Concatenates two arrays.
+	 *
+	 * @param oldValue the old value
+	 * @param newValue the new value
+	 * @return the concatenated array
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public T accumulate(T oldValue, T newValue) {
+		if (oldValue == null) {
+			return newValue;
+		}
+
+		final int a1 = Array.getLength(oldValue);
+		final int b1 = Array.getLength(newValue);
+
+		final Object c = Array.newInstance(newValue.getClass().getComponentType(), a1 + b1);
+
+		System.arraycopy(oldValue, 0, c, 0, a1);
+		System.arraycopy(newValue, 0, c, a1, b1);
+
+		return (T) c;
+	}
+
+	/**
+	 * Begin.
+	 *
+	 * @return the builder
+	 */
+	@Override
+	public Builder<T> begin() {
+		return new ArrayBuilder();
+	}
+
+}
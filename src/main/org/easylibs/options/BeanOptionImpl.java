@@ -56,17 +56,23 @@ class BeanOptionImpl extends SimpleOption<Object> implements BeanOption {
 	}
 
 	/**
-	 * Sets the value.
+	 * Publish.
 	 *
-	 * @param value the new value
+	 * @param value      the value
+	 * @param matchCount the match count
 	 */
 	@Override
-	public void setValue(Object value) {
+	public void publish(Object value, int matchCount) {
+		if (matchCount == 0) {
+			super.publish(value, matchCount);
+			return;
+		}
+
 		final Object processed = accumulator.accumulate(bean.getValue(), value);
 
 		this.bean.setValue(processed);
 
-		super.store(processed);
+		super.publish(processed, matchCount);
 	}
 
 	/**
@@ -0,0 +1,43 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * An option with a {@code boolean} value. The value is parsed, accumulated and
+ * stored as a primitive, it is only boxed when read through the generic
+ * {@link #getValue()} or {@link ParseResult#getValue(Option)} methods.
+ * 
+ * @see Option#ofBoolean(String)
+ */
+public interface BooleanOption extends Option<Boolean> {
+
+	/**
+	 * Gets the current value of the option, as published by the last parse, see
+	 * {@link Args#publish()}. To read the value of a specific parse use
+	 * {@link ParseResult#getBoolean(BooleanOption)}.
+	 *
+	 * @return the value, or false if the option was not matched
+	 */
+	boolean getBoolean();
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * A {@code boolean} option. Matches are mapped into the parse state as a
+ * primitive, the value is only boxed when read generically.
+ */
+class BooleanOptionImpl extends PrimitiveOption<Boolean> implements BooleanOption {
+
+	/** The mapper. */
+	private BooleanTypeMapper booleanMapper;
+
+	/** The value, as published by the last parse. */
+	private boolean value;
+
+	/**
+	 * Instantiates a new boolean option.
+	 *
+	 * @param name the name
+	 * @param min  the minimum number of arguments
+	 * @param max  the maximum number of arguments
+	 */
+	BooleanOptionImpl(String name, int min, int max) {
+		super(name, boolean.class, min, max, Boolean.TRUE);
+	}
+
+	/**
+	 * Adapts the mapper.
+	 *
+	 * @param mapper the mapper
+	 */
+	@Override
+	void adapt(TypeMapper<Boolean> mapper) {
+		this.booleanMapper = (mapper instanceof BooleanTypeMapper)
+				? (BooleanTypeMapper) mapper
+				: s -> mapBoxed(mapper, s);
+	}
+
+	/**
+	 * Box from.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 * @return the boxed value
+	 */
+	@Override
+	Boolean boxFrom(ParseState state, int index) {
+		return Boolean.valueOf(state.getInt(index) != 0);
+	}
+
+	/**
+	 * Gets the boolean value.
+	 *
+	 * @return the boolean
+	 */
+	@Override
+	public boolean getBoolean() {
+		return value;
+	}
+
+	/**
+	 * Match.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 * @param arg   the arg
+	 * @throws Throwable the throwable
+	 */
+	@Override
+	public void match(ParseState state, int index, CharSequence arg) throws Throwable {
+		final boolean v = hasArgument(arg) ? booleanMapper.mapToBoolean(arg) : defaultValue;
+
+		state.putInt(index, v ? 1 : 0);
+
+		if (hasMatchHandler()) {
+			dispatchMatch(v);
+		}
+	}
+
+	/**
+	 * Publish primitive.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 */
+	@Override
+	void publishPrimitive(ParseState state, int index) {
+		this.value = state.getInt(index) != 0;
+	}
+}
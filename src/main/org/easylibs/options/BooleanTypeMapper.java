@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * A {@link TypeMapper} specialized for {@code boolean} values. The mapping is done
+ * directly to the primitive type, without boxing, when used by a primitive
+ * option such as {@link BooleanOption}. When used as a generic type mapper the value
+ * is boxed.
+ * 
+ * @see Option#ofBoolean(String)
+ */
+public interface BooleanTypeMapper extends TypeMapper<Boolean> {
+
+	/**
+	 * Maps the command line argument to a {@code boolean}.
+	 *
+	 * @param value the value
+	 * @return the boolean value
+	 * @throws Throwable if the value is not a valid boolean
+	 */
+	boolean mapToBoolean(CharSequence value) throws Throwable;
+
+	/**
+	 * Map from.
+	 *
+	 * @param value the value
+	 * @return the boxed value
+	 * @throws Throwable the throwable
+	 */
+	@Override
+	default Boolean mapFrom(String value) throws Throwable {
+		return mapToBoolean(value);
+	}
+
+	/**
+	 * The value of a boolean option which is matched without an argument, true.
+	 *
+	 * @return true
+	 */
+	@Override
+	default Boolean defaultValue() {
+		return true;
+	}
+}
@@ -0,0 +1,358 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * Parsers for numeric and boolean values which read directly from a range of a
+ * {@link CharSequence}, such as a part of a command line arg, a
+ * {@code CharBuffer} or a view over bytes. No intermediate strings are created
+ * and, for valid values, no exceptions are thrown and caught. The parsers
+ * accept the same syntax as their {@code java.lang} counterparts and are used
+ * by the default type mappers, see {@link TypeRegistry}.
+ */
+public final class CharParsers {
+
+	/** Exact powers of ten, as doubles. */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+			1e21, 1e22,
+	};
+
+	/** The most significant digits of a double fast path mantissa. */
+	private static final int MAX_FAST_DIGITS = 15;
+
+	/**
+	 * Checks if the range equals the lower case word, ignoring case.
+	 *
+	 * @param s     the chars
+	 * @param start the start
+	 * @param end   the end
+	 * @param word  the lower case word
+	 * @return true, if equal
+	 */
+	private static boolean equalsIgnoreCase(CharSequence s, int start, int end, String word) {
+		if ((end - start) != word.length()) {
+			return false;
+		}
+
+		for (int i = start; i < end; i++) {
+			if (Character.toLowerCase(s.charAt(i)) != word.charAt(i - start)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Creates a number format exception for the range.
+	 *
+	 * @param prefix the message prefix
+	 * @param s      the chars
+	 * @param start  the start
+	 * @param end    the end
+	 * @return the number format exception
+	 */
+	private static NumberFormatException invalid(String prefix, CharSequence s, int start, int end) {
+		return new NumberFormatException(prefix + "\"" + s.subSequence(start, end) + "\"");
+	}
+
+	/**
+	 * Parses a boolean, see {@link #parseBoolean(CharSequence, int, int)}.
+	 *
+	 * @param s the chars
+	 * @return the boolean
+	 * @throws NumberFormatException if not a valid boolean
+	 */
+	public static boolean parseBoolean(CharSequence s) throws NumberFormatException {
+		return parseBoolean(s, 0, s.length());
+	}
+
+	/**
+	 * Parses a boolean. The words {@code true} and {@code on} and the number
+	 * {@code 1} are true, {@code false}, {@code off} and {@code 0} are false,
+	 * ignoring case. Any other integer is true if not zero.
+	 *
+	 * @param s     the chars
+	 * @param start the start, inclusive
+	 * @param end   the end, exclusive
+	 * @return the boolean
+	 * @throws NumberFormatException if not a valid boolean
+	 */
+	public static boolean parseBoolean(CharSequence s, int start, int end) throws NumberFormatException {
+		if (equalsIgnoreCase(s, start, end, "true")
+				|| equalsIgnoreCase(s, start, end, "on")
+				|| equalsIgnoreCase(s, start, end, "1")) {
+			return true;
+
+		} else if (equalsIgnoreCase(s, start, end, "false")
+				|| equalsIgnoreCase(s, start, end, "off")
+				|| equalsIgnoreCase(s, start, end, "0")) {
+			return false;
+		}
+
+		try {
+			return parseLong(s, start, end) != 0;
+		} catch (NumberFormatException e) {
+			throw new NumberFormatException("invalid boolean value " + s.subSequence(start, end));
+		}
+	}
+
+	/**
+	 * Parses a double, see {@link #parseDouble(CharSequence, int, int)}.
+	 *
+	 * @param s the chars
+	 * @return the double
+	 * @throws NumberFormatException if not a valid double
+	 */
+	public static double parseDouble(CharSequence s) throws NumberFormatException {
+		return parseDouble(s, 0, s.length());
+	}
+
+	/**
+	 * Parses a double. Plain decimal values, with an optional sign, fraction and
+	 * exponent, of up to 15 significant digits are converted exactly without
+	 * creating a string. Any other value, such as one with more digits, a hex
+	 * value, {@code NaN} or {@code Infinity}, is parsed by
+	 * {@link Double#parseDouble(String)}.
+	 *
+	 * @param s     the chars
+	 * @param start the start, inclusive
+	 * @param end   the end, exclusive
+	 * @return the double
+	 * @throws NumberFormatException if not a valid double
+	 */
+	public static double parseDouble(CharSequence s, int start, int end) throws NumberFormatException {
+		int i = start;
+		boolean negative = false;
+
+		if ((i < end) && ((s.charAt(i) == '-') || (s.charAt(i) == '+'))) {
+			negative = s.charAt(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+
+		for (; i < end; i++) {
+			final int d = s.charAt(i) - '0';
+			if ((d < 0) || (d > 9)) {
+				break;
+			}
+
+			any = true;
+			if ((mantissa != 0) || (d != 0)) {
+				digits++;
+			}
+			mantissa = (mantissa * 10) + d;
+
+			if (digits > MAX_FAST_DIGITS) {
+				return Double.parseDouble(s.subSequence(start, end).toString());
+			}
+		}
+
+		if ((i < end) && (s.charAt(i) == '.')) {
+			for (i++; i < end; i++) {
+				final int d = s.charAt(i) - '0';
+				if ((d < 0) || (d > 9)) {
+					break;
+				}
+
+				any = true;
+				if ((mantissa != 0) || (d != 0)) {
+					digits++;
+				}
+				mantissa = (mantissa * 10) + d;
+				exponent--;
+
+				if (digits > MAX_FAST_DIGITS) {
+					return Double.parseDouble(s.subSequence(start, end).toString());
+				}
+			}
+		}
+
+		if (any && (i < end) && ((s.charAt(i) == 'e') || (s.charAt(i) == 'E'))) {
+			i++;
+
+			boolean negativeExponent = false;
+			if ((i < end) && ((s.charAt(i) == '-') || (s.charAt(i) == '+'))) {
+				negativeExponent = s.charAt(i) == '-';
+				i++;
+			}
+
+			int e = 0;
+			int exponentDigits = 0;
+			for (; (i < end) && (exponentDigits < 4); i++, exponentDigits++) {
+				final int d = s.charAt(i) - '0';
+				if ((d < 0) || (d > 9)) {
+					break;
+				}
+
+				e = (e * 10) + d;
+			}
+
+			if (exponentDigits == 0) {
+				any = false;
+			}
+
+			exponent += negativeExponent ? -e : e;
+		}
+
+		if (!any || (i != end) || (exponent < -POWERS_OF_TEN.length + 1) || (exponent >= POWERS_OF_TEN.length)) {
+			return Double.parseDouble(s.subSequence(start, end).toString());
+		}
+
+		double value = mantissa;
+		if (exponent < 0) {
+			value /= POWERS_OF_TEN[-exponent];
+		} else {
+			value *= POWERS_OF_TEN[exponent];
+		}
+
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses a decimal int, see {@link #parseInt(CharSequence, int, int)}.
+	 *
+	 * @param s the chars
+	 * @return the int
+	 * @throws NumberFormatException if not a valid int
+	 */
+	public static int parseInt(CharSequence s) throws NumberFormatException {
+		return parseInt(s, 0, s.length());
+	}
+
+	/**
+	 * Parses a decimal int, with an optional sign, the same as
+	 * {@link Integer#parseInt(String)}.
+	 *
+	 * @param s     the chars
+	 * @param start the start, inclusive
+	 * @param end   the end, exclusive
+	 * @return the int
+	 * @throws NumberFormatException if not a valid int
+	 */
+	public static int parseInt(CharSequence s, int start, int end) throws NumberFormatException {
+		final long value = parseLong(s, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+		return (int) value;
+	}
+
+	/**
+	 * Parses a decimal long, see {@link #parseLong(CharSequence, int, int)}.
+	 *
+	 * @param s the chars
+	 * @return the long
+	 * @throws NumberFormatException if not a valid long
+	 */
+	public static long parseLong(CharSequence s) throws NumberFormatException {
+		return parseLong(s, 0, s.length());
+	}
+
+	/**
+	 * Parses a decimal long, with an optional sign, the same as
+	 * {@link Long#parseLong(String)}.
+	 *
+	 * @param s     the chars
+	 * @param start the start, inclusive
+	 * @param end   the end, exclusive
+	 * @return the long
+	 * @throws NumberFormatException if not a valid long
+	 */
+	public static long parseLong(CharSequence s, int start, int end) throws NumberFormatException {
+		return parseLong(s, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Parses a decimal value within limits. The value is accumulated negatively,
+	 * as the JDK does, so that the minimum value does not overflow.
+	 *
+	 * @param s     the chars
+	 * @param start the start, inclusive
+	 * @param end   the end, exclusive
+	 * @param min   the minimum value
+	 * @param max   the maximum value
+	 * @return the value
+	 * @throws NumberFormatException if not a valid value within the limits
+	 */
+	private static long parseLong(CharSequence s, int start, int end, long min, long max)
+			throws NumberFormatException {
+		if (start >= end) {
+			throw invalid("For input string: ", s, start, end);
+		}
+
+		int i = start;
+		boolean negative = false;
+		long limit = -max;
+
+		final char first = s.charAt(i);
+		if ((first == '-') || (first == '+')) {
+			negative = first == '-';
+			if (negative) {
+				limit = min;
+			}
+
+			if (++i == end) {
+				throw invalid("For input string: ", s, start, end);
+			}
+		}
+
+		final long multmin = limit / 10;
+		long result = 0;
+
+		for (; i < end; i++) {
+			final char c = s.charAt(i);
+			int d = c - '0';
+			if ((d < 0) || (d > 9)) {
+				d = Character.digit(c, 10);
+				if (d < 0) {
+					throw invalid("For input string: ", s, start, end);
+				}
+			}
+
+			if (result < multmin) {
+				throw invalid("For input string: ", s, start, end);
+			}
+
+			result *= 10;
+			if (result < limit + d) {
+				throw invalid("For input string: ", s, start, end);
+			}
+
+			result -= d;
+		}
+
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Instantiates a new char parsers.
+	 */
+	private CharParsers() {
+	}
+}
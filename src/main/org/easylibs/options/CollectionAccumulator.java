@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.Collection;
+
+/**
+ * The default accumulator for collection types, adds the elements of all
+ * matches to the collection of the first match. Within a parse, the builder
+ * exposes the accumulating collection, so that the elements of later matches
+ * can be mapped straight into it instead of into a new collection per match.
+ *
+ * @param <T> the collection type
+ */
+final class CollectionAccumulator<T extends Collection<?>> implements Accumulator<T> {
+
+	/**
+	 * The collection builder.
+	 *
+	 * @param <T> the collection type
+	 */
+	static final class CollectionBuilder<T extends Collection<?>> implements Builder<T> {
+
+		/** The accumulator. */
+		private final CollectionAccumulator<T> accumulator;
+
+		/** The collection of the first match, or null if none yet. */
+		private T collection;
+
+		/**
+		 * Instantiates a new collection builder.
+		 *
+		 * @param accumulator the accumulator
+		 */
+		CollectionBuilder(CollectionAccumulator<T> accumulator) {
+			this.accumulator = accumulator;
+		}
+
+		/**
+		 * Append.
+		 *
+		 * @param value the value
+		 */
+		@Override
+		public void append(T value) {
+			collection = accumulator.accumulate(collection, value);
+		}
+
+		/**
+		 * Gets the collection accumulating the values appended so far.
+		 *
+		 * @return the collection, or null if nothing was appended
+		 */
+		T collection() {
+			return collection;
+		}
+
+		/**
+		 * Finish.
+		 *
+		 * @return the collection
+		 */
+		@Override
+		public T finish() {
+			return collection;
+		}
+	}
+
+	/**
+	 * Adds the elements of the new value to the old value.
+	 *
+	 * @param oldValue the old value
+	 * @param newValue the new value
+	 * @return the old value, or the new value if there is no old value
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public T accumulate(T oldValue, T newValue) {
+		if (oldValue == null) {
+			return newValue;
+		}
+
+		if (newValue != null) {
+			oldValue.addAll((Collection) newValue);
+		}
+
+		return oldValue;
+	}
+
+	/**
+	 * Begin.
+	 *
+	 * @return the builder
+	 */
+	@Override
+	public Builder<T> begin() {
+		return new CollectionBuilder<>(this);
+	}
+
+}
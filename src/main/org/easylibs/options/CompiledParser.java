@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.easylibs.getopt.ArgumentSource;
+
+/**
+ * <p>
+ * A command line parser compiled from an {@link Options} group. The option
+ * tables used by the parser, such as the getopt short option string and long
+ * option definitions, are built only once when the options are compiled and
+ * are then reused for every command line that is parsed.
+ * </p>
+ * 
+ * <p>
+ * The compiled parser is immutable and can be applied to any number of command
+ * line argument arrays, from any number of threads. Each parse returns its own
+ * {@link ParseResult} and does not modify the options, until the result is
+ * explicitly published using {@link Args#publish()}. Use
+ * {@link Options#compile} to get an instance.
+ * </p>
+ * 
+ * <h2>Example</h2>
+ * 
+ * <code>
+ * <pre>
+ * final CompiledParser parser = new Options.Builder()
+ * 	.create("a")
+ * 	.create("file-names", List.class)
+ * 	.build()
+ * 	.compile();
+ * 
+ * final Args args = parser.parse(argv);
+ * final boolean a = args.isMatched(args.getOptions().get("a"));
+ * </pre>
+ * </code>
+ * 
+ * @see Options#compile()
+ */
+public interface CompiledParser {
+
+	/**
+	 * Gets the options this parser was compiled from.
+	 *
+	 * @return the options
+	 */
+	Options getOptions();
+
+	/**
+	 * Parses the command line arguments using the compiled option tables.
+	 *
+	 * @param args the command line args to parse
+	 * @return the args parser result
+	 * @throws UnrecognizedArgException (checked) thrown by the parser if the
+	 *                                  command line args contain an option looking
+	 *                                  arg but no option has been defined
+	 * @throws InvalidArgException      (checked) thrown by the parser if unable to
+	 *                                  process an options argument
+	 */
+	Args parse(String[] args) throws UnrecognizedArgException, InvalidArgException;
+
+	/**
+	 * Parses the command line arguments read from an argument source. Arguments
+	 * are read from the source as parsing reaches them, which allows a source
+	 * such as {@link ArgumentSource#withResponseFiles(ArgumentSource)} to expand
+	 * {@code @path} response files without first building an args array.
+	 *
+	 * @param source the source of the command line args to parse
+	 * @return the args parser result
+	 * @throws UnrecognizedArgException (checked) thrown by the parser if the
+	 *                                  command line args contain an option looking
+	 *                                  arg but no option has been defined
+	 * @throws InvalidArgException      (checked) thrown by the parser if unable to
+	 *                                  process an options argument
+	 * @throws UncheckedIOException     if the source failed to read the args
+	 */
+	Args parse(ArgumentSource source) throws UnrecognizedArgException, InvalidArgException;
+
+	/**
+	 * Parses the command line arguments, deferring the mapping of option
+	 * arguments until the option values are first read. Matching an option only
+	 * records its argument, so expensive type mappers, such as
+	 * {@code Class::forName}, only run for the values the application actually
+	 * reads. Mapped values are memoized. Values of primitive options, such as
+	 * {@link IntOption}, are always mapped while parsing.
+	 * 
+	 * <p>
+	 * An argument which can not be mapped is reported when the value is read, as
+	 * an {@link UncheckedArgException}, or for all options at once by
+	 * {@link Args#resolveAll()}. Match handlers are dispatched when the value is
+	 * mapped.
+	 * </p>
+	 *
+	 * @param args the command line args to parse
+	 * @return the args parser result
+	 * @throws UnrecognizedArgException (checked) thrown by the parser if the
+	 *                                  command line args contain an option looking
+	 *                                  arg but no option has been defined
+	 * @throws InvalidArgException      (checked) thrown by the parser if a
+	 *                                  required option argument is missing
+	 */
+	Args parseLazy(String[] args) throws UnrecognizedArgException, InvalidArgException;
+
+	/**
+	 * Parses the command line arguments read from an argument source, deferring
+	 * the mapping of option arguments, see {@link #parseLazy(String[])}.
+	 *
+	 * @param source the source of the command line args to parse
+	 * @return the args parser result
+	 * @throws UnrecognizedArgException (checked) thrown by the parser if the
+	 *                                  command line args contain an option looking
+	 *                                  arg but no option has been defined
+	 * @throws InvalidArgException      (checked) thrown by the parser if a
+	 *                                  required option argument is missing
+	 * @throws UncheckedIOException     if the source failed to read the args
+	 */
+	Args parseLazy(ArgumentSource source) throws UnrecognizedArgException, InvalidArgException;
+
+	/**
+	 * Parses the command line arguments, then maps the option arguments
+	 * concurrently on the executor, see
+	 * {@link #parseAsync(String[], Executor, long, TimeUnit)}.
+	 *
+	 * @param args     the command line args to parse
+	 * @param executor the executor which runs the type mappers
+	 * @return the future args
+	 */
+	default CompletableFuture<Args> parseAsync(String[] args, Executor executor) {
+		return parseAsync(args, executor, 0, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Parses the command line arguments, then maps the option arguments
+	 * concurrently on the executor. Tokenizing is done on the calling thread, as
+	 * with {@link #parseLazy(String[])}, and each option argument is then mapped
+	 * as a separate task, so that type mappers which do I/O, such as reading key
+	 * files or resolving hosts, run in parallel. A fork-join pool or, on newer
+	 * JDKs, a virtual thread per task executor are good choices.
+	 * 
+	 * <p>
+	 * Once all arguments are mapped, the values are accumulated and match
+	 * handlers are dispatched in the order the options were matched, exactly as
+	 * with {@link #parse(String[])}. Primitive options are mapped while parsing.
+	 * </p>
+	 * 
+	 * <p>
+	 * The timeout of each mapping starts when the executor starts running it, so
+	 * time spent waiting for a thread of a bounded executor does not count. A
+	 * mapping which times out is interrupted.
+	 * </p>
+	 *
+	 * @param args     the command line args to parse
+	 * @param executor the executor which runs the type mappers
+	 * @param timeout  the maximum time for mapping each argument, or 0 for no
+	 *                 timeout
+	 * @param unit     the timeout unit
+	 * @return the future args, completed exceptionally with an
+	 *         {@link UnrecognizedArgException} or {@link InvalidArgException} on
+	 *         errors. A mapping which times out is reported as an
+	 *         {@link InvalidArgException} caused by a
+	 *         {@link java.util.concurrent.TimeoutException}
+	 */
+	CompletableFuture<Args> parseAsync(String[] args, Executor executor, long timeout, TimeUnit unit);
+
+	/**
+	 * Parses the command line arguments and dispatches any parser errors to the
+	 * global default error handler, see {@link Args#setDefaultErrorHandler},
+	 * instead of throwing them.
+	 *
+	 * @param args the command line args to parse
+	 * @return the parser result if no error was encountered, otherwise an empty
+	 *         optional
+	 */
+	default Optional<Args> parseOptional(String[] args) {
+		return parseOptional(args, Args.getDefaultErrorHandler());
+	}
+
+	/**
+	 * Parses the command line arguments and dispatches any parser errors to the
+	 * supplied error handler instead of throwing them.
+	 *
+	 * @param args         the command line args to parse
+	 * @param errorHandler the error handler
+	 * @return the parser result if no error was encountered, otherwise an empty
+	 *         optional
+	 */
+	default Optional<Args> parseOptional(String[] args, Consumer<ArgException> errorHandler) {
+		try {
+			return Optional.of(parse(args));
+		} catch (UnrecognizedArgException | InvalidArgException e) {
+
+			errorHandler.accept(e);
+
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * A list of {@code double} values backed by a primitive array. As an option type,
+ * such as {@code Option.of("weights", DoubleList.class)}, comma separated values are
+ * parsed directly into the list without boxing each element. The {@code List}
+ * methods box and unbox values, while {@link #getDouble(int)}, {@link #addDouble(double)}
+ * and {@link #toDoubleArray()} work with primitives.
+ */
+public final class DoubleList extends PrimitiveList<Double, double[]> {
+
+	/**
+	 * Instantiates a new empty list.
+	 */
+	public DoubleList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty list.
+	 *
+	 * @param capacity the initial capacity
+	 */
+	public DoubleList(int capacity) {
+		super(new double[capacity]);
+	}
+
+	/**
+	 * Adds the.
+	 *
+	 * @param value the value
+	 * @return true
+	 */
+	@Override
+	public boolean add(Double value) {
+		addDouble(value);
+
+		return true;
+	}
+
+	/**
+	 * Inserts the value.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	@Override
+	public void add(int index, Double value) {
+		addDouble(index, value);
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value
+	 */
+	public void addDouble(double value) {
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+		modCount++;
+	}
+
+	/**
+	 * Inserts a value, shifting any values at and after the index to the right.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	public void addDouble(int index, double value) {
+		/* The array may be replaced, so it is read only after making room */
+		final int i = openAt(index);
+		elements[i] = value;
+	}
+
+	/**
+	 * Copies the array.
+	 *
+	 * @param elements the elements
+	 * @param length   the length
+	 * @return the copy
+	 */
+	@Override
+	double[] copyOf(double[] elements, int length) {
+		return Arrays.copyOf(elements, length);
+	}
+
+	/**
+	 * Gets the.
+	 *
+	 * @param index the index
+	 * @return the boxed value
+	 */
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	/**
+	 * Gets the value.
+	 *
+	 * @param index the index
+	 * @return the value
+	 */
+	public double getDouble(int index) {
+		return elements[checkIndex(index)];
+	}
+
+	/**
+	 * Gets the length of the array.
+	 *
+	 * @param elements the elements
+	 * @return the length
+	 */
+	@Override
+	int length(double[] elements) {
+		return elements.length;
+	}
+
+	/**
+	 * Removes the.
+	 *
+	 * @param index the index
+	 * @return the removed value
+	 */
+	@Override
+	public Double remove(int index) {
+		return removeDouble(index);
+	}
+
+	/**
+	 * Removes a value, shifting any following values to the left.
+	 *
+	 * @param index the index
+	 * @return the removed value
+	 */
+	public double removeDouble(int index) {
+		final double old = getDouble(index);
+		closeAt(index);
+
+		return old;
+	}
+
+	/**
+	 * Sets the.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 * @return the previous value
+	 */
+	@Override
+	public Double set(int index, Double value) {
+		return setDouble(index, value);
+	}
+
+	/**
+	 * Sets the value.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 * @return the previous value
+	 */
+	public double setDouble(int index, double value) {
+		final double old = getDouble(index);
+		elements[index] = value;
+
+		return old;
+	}
+
+	/**
+	 * Streams the values.
+	 *
+	 * @return the stream
+	 */
+	public DoubleStream doubleStream() {
+		return Arrays.stream(elements, 0, size);
+	}
+
+	/**
+	 * Copies the values to a new array.
+	 *
+	 * @return the array
+	 */
+	public double[] toDoubleArray() {
+		return copyElements();
+	}
+}
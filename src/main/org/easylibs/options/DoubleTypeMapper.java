@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * A {@link TypeMapper} specialized for {@code double} values. The mapping is done
+ * directly to the primitive type, without boxing, when used by a primitive
+ * option such as {@link DoubleOption}. When used as a generic type mapper the value
+ * is boxed.
+ * 
+ * @see Option#ofDouble(String)
+ */
+public interface DoubleTypeMapper extends TypeMapper<Double> {
+
+	/**
+	 * Maps the command line argument to a {@code double}.
+	 *
+	 * @param value the value
+	 * @return the double value
+	 * @throws Throwable if the value is not a valid double
+	 */
+	double mapToDouble(CharSequence value) throws Throwable;
+
+	/**
+	 * Maps a range of the chars to a {@code double}, such as one element of a list
+	 * of values. The default implementation maps a copy of the range.
+	 *
+	 * @param value the chars
+	 * @param start the start of the range, inclusive
+	 * @param end   the end of the range, exclusive
+	 * @return the double value
+	 * @throws Throwable if the value is not a valid double
+	 */
+	default double mapToDouble(CharSequence value, int start, int end) throws Throwable {
+		return mapToDouble(value.subSequence(start, end));
+	}
+
+	/**
+	 * Map from.
+	 *
+	 * @param value the value
+	 * @return the boxed value
+	 * @throws Throwable the throwable
+	 */
+	@Override
+	default Double mapFrom(String value) throws Throwable {
+		return mapToDouble(value);
+	}
+}
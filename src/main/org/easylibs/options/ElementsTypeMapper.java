@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * A type mapper for arrays and collections, which maps each element of an
+ * argument split by a {@link ValueTokenizer}. The elements are mapped by the
+ * component type mapper and stored directly into the array or collection.
+ *
+ * @param <T> the array or collection type
+ */
+interface ElementsTypeMapper<T> extends TypeMapper<T> {
+
+	/**
+	 * Maps the elements of the value.
+	 *
+	 * @param value     the value
+	 * @param tokenizer the tokenizer
+	 * @return the array or collection
+	 * @throws Throwable if an element could not be mapped
+	 */
+	T mapElements(CharSequence value, ValueTokenizer tokenizer) throws Throwable;
+
+	/**
+	 * Maps the elements of the value straight into a collection, which holds the
+	 * elements of previous matches. Mappers which can not add to an existing
+	 * value return false.
+	 *
+	 * @param value     the value
+	 * @param tokenizer the tokenizer
+	 * @param target    the collection to add the elements to
+	 * @return true, if the elements were added
+	 * @throws Throwable if an element could not be mapped
+	 */
+	default boolean mapElementsInto(CharSequence value, ValueTokenizer tokenizer, T target) throws Throwable {
+		return false;
+	}
+
+	/**
+	 * Maps the elements of the value, split on commas.
+	 *
+	 * @param value the value
+	 * @return the array or collection
+	 * @throws Throwable if an element could not be mapped
+	 */
+	@Override
+	default T mapFrom(String value) throws Throwable {
+		return mapElements(value, ValueTokenizer.COMMA);
+	}
+}
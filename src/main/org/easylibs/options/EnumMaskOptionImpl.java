@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * A {@code long} option whose value is a bit mask of enum constant ordinals,
+ * see {@link Option#ofEnumMask(String, Class)}. The argument is split by the
+ * option's tokenizer, each name is looked up in the enum's
+ * {@link EnumTypeMapper} table and the masks of all matches are combined.
+ *
+ * @param <E> the enum type
+ */
+class EnumMaskOptionImpl<E extends Enum<E>> extends LongOptionImpl {
+
+	/** The enum mapper. */
+	private final EnumTypeMapper<E> enumMapper;
+
+	/**
+	 * Instantiates a new enum mask option. The mask mapper is installed here and
+	 * is never replaced.
+	 *
+	 * @param name     the name
+	 * @param enumType the enum type
+	 * @throws IllegalArgumentException if the enum has more than 64 constants
+	 */
+	EnumMaskOptionImpl(String name, Class<E> enumType) throws IllegalArgumentException {
+		super(name, 1, 1, LongAccumulator.or());
+
+		if (enumType.getEnumConstants().length > Long.SIZE) {
+			throw new IllegalArgumentException("enum " + enumType.getSimpleName()
+					+ " has more than " + Long.SIZE + " constants for option '" + name + "'");
+		}
+
+		this.enumMapper = EnumTypeMapper.of(enumType);
+
+		final LongTypeMapper mapper = value -> enumMapper.mapToMask(value, getTokenizer());
+		super.setMapper(mapper);
+		setAccumulator(mapper.accumulator());
+	}
+
+	/**
+	 * The mask mapper is fixed, so the mapper is not resolved from the type
+	 * registry.
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isMapperFixed() {
+		return true;
+	}
+
+	/**
+	 * Always rejects the mapper, the names of an enum mask option are only mapped
+	 * by the enum's mask mapper.
+	 *
+	 * @param mapper the mapper
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void setMapper(TypeMapper<Long> mapper) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("the mapper of enum mask option '" + getName() + "' is fixed");
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.EnumSet;
+import java.util.Optional;
+
+/**
+ * An option whose value is an {@link EnumSet}. The set is mapped by the type
+ * registry, which recognizes the enum element type, see
+ * {@link Option#ofEnumSet(String, Class)}.
+ *
+ * @param <E> the enum type
+ */
+class EnumSetOptionImpl<E extends Enum<E>> extends SimpleOption<EnumSet<E>> {
+
+	/** The enum type. */
+	private final Class<E> enumType;
+
+	/**
+	 * Instantiates a new enum set option.
+	 *
+	 * @param name     the name
+	 * @param enumType the enum type
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	EnumSetOptionImpl(String name, Class<E> enumType) {
+		super(name, (Class) EnumSet.class, 1, 1);
+		this.enumType = enumType;
+	}
+
+	/**
+	 * Gets the generic type.
+	 *
+	 * @return the enum type
+	 */
+	@Override
+	public Optional<Class<?>> getGenericType() {
+		return Optional.of(enumType);
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * The type mapper automatically created for enum types. Enum constant names
+ * are matched ignoring case, using a hash table of case folded names built once
+ * per enum type. Lookups take constant time, do not allocate and can be done
+ * on a range of any {@link CharSequence}, such as an element of a list of
+ * values.
+ *
+ * @param <E> the enum type
+ */
+final class EnumTypeMapper<E extends Enum<E>> implements TypeMapper<E> {
+
+	/** The mapper of each enum type. */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static final ClassValue<EnumTypeMapper<?>> MAPPERS = new ClassValue<EnumTypeMapper<?>>() {
+
+		@Override
+		protected EnumTypeMapper<?> computeValue(Class<?> type) {
+			return new EnumTypeMapper(type);
+		}
+	};
+
+	/**
+	 * Gets the mapper for an enum type.
+	 *
+	 * @param <E>  the enum type
+	 * @param type the type
+	 * @return the enum type mapper
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Enum<E>> EnumTypeMapper<E> of(Class<E> type) {
+		return (EnumTypeMapper<E>) MAPPERS.get(type);
+	}
+
+	/**
+	 * Folds the case of a char, the same way as
+	 * {@link String#equalsIgnoreCase(String)} compares chars.
+	 *
+	 * @param c the char
+	 * @return the folded char
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/**
+	 * Computes the case insensitive hash of a range of chars.
+	 *
+	 * @param s     the chars
+	 * @param start the start
+	 * @param end   the end
+	 * @return the hash
+	 */
+	private static int hash(CharSequence s, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = (31 * h) + fold(s.charAt(i));
+		}
+
+		return h ^ (h >>> 16);
+	}
+
+	/** The enum type. */
+	private final Class<E> type;
+
+	/** The enum constants, in declaration order. */
+	private final E[] constants;
+
+	/** The hash table, holding constant ordinals plus one, or 0 if empty. */
+	private final int[] table;
+
+	/** The table mask. */
+	private final int mask;
+
+	/**
+	 * Instantiates a new enum type mapper.
+	 *
+	 * @param type the enum type
+	 */
+	private EnumTypeMapper(Class<E> type) {
+		this.type = type;
+		this.constants = type.getEnumConstants();
+
+		int size = 2;
+		while (size < (constants.length * 2)) {
+			size <<= 1;
+		}
+
+		this.table = new int[size];
+		this.mask = size - 1;
+
+		for (E constant : constants) {
+			final String name = constant.name();
+
+			/* The first declared constant wins if names only differ in case */
+			if (lookup(name, 0, name.length()) == null) {
+				int slot = hash(name, 0, name.length()) & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+
+				table[slot] = constant.ordinal() + 1;
+			}
+		}
+	}
+
+	/**
+	 * Checks if a constant name equals the range of chars, ignoring case.
+	 *
+	 * @param name  the name
+	 * @param s     the chars
+	 * @param start the start
+	 * @param end   the end
+	 * @return true, if equal
+	 */
+	private static boolean equalsIgnoreCase(String name, CharSequence s, int start, int end) {
+		if (name.length() != (end - start)) {
+			return false;
+		}
+
+		for (int i = start; i < end; i++) {
+			final char c1 = name.charAt(i - start);
+			final char c2 = s.charAt(i);
+
+			if ((c1 != c2) && (fold(c1) != fold(c2))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Looks up the enum constant named by a range of chars, ignoring case.
+	 *
+	 * @param s     the chars
+	 * @param start the start
+	 * @param end   the end
+	 * @return the enum constant, or null if none
+	 */
+	E lookup(CharSequence s, int start, int end) {
+		int slot = hash(s, start, end) & mask;
+
+		for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+			final E constant = constants[entry - 1];
+			if (equalsIgnoreCase(constant.name(), s, start, end)) {
+				return constant;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Maps a range of chars to its enum constant, ignoring case.
+	 *
+	 * @param s     the chars
+	 * @param start the start
+	 * @param end   the end
+	 * @return the enum constant
+	 * @throws IllegalArgumentException if no constant has the name
+	 */
+	E mapFrom(CharSequence s, int start, int end) throws IllegalArgumentException {
+		final E constant = lookup(s, start, end);
+		if (constant == null) {
+			throw new IllegalArgumentException(
+					"No enum constant " + type.getCanonicalName() + "." + s.subSequence(start, end));
+		}
+
+		return constant;
+	}
+
+	/**
+	 * Maps the names in a list of values to a bit mask of the ordinals of their
+	 * enum constants. The mask is built in a local, so the mapping can be done by
+	 * many threads at once.
+	 *
+	 * @param value     the value
+	 * @param tokenizer the tokenizer which splits the value into names
+	 * @return the mask
+	 * @throws Throwable if a name is not an enum constant
+	 */
+	long mapToMask(CharSequence value, ValueTokenizer tokenizer) throws Throwable {
+		final long[] mask = { 0L };
+
+		tokenizer.tokenize(value, (index, chars, start, end) -> mask[0] |= 1L << mapFrom(chars, start, end).ordinal());
+
+		return mask[0];
+	}
+
+	/**
+	 * Map from.
+	 *
+	 * @param value the value
+	 * @return the enum constant
+	 * @throws IllegalArgumentException if no constant has the name
+	 */
+	@Override
+	public E mapFrom(String value) throws IllegalArgumentException {
+		return mapFrom(value, 0, value.length());
+	}
+}
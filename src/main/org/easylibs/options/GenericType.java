@@ -23,19 +23,69 @@
  */
 package org.easylibs.options;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 // TODO: Auto-generated Javadoc
 /**
  * The Class GenericType.
+ * 
+ * <p>
+ * Instances are interned by class identity, so that equal generic types are
+ * the same instance and registry lookups do not allocate. The interned
+ * instances are attached to their classes through a {@link ClassValue}, so the
+ * interning itself does not keep a class loader from being collected, with one
+ * exception: a parameterized type is held by its type argument, so one whose
+ * argument outlives its raw type, such as a plugin type parameterized by
+ * {@code String}, stays reachable.
+ * </p>
+ * <p>
+ * A {@link TypeRegistry} holds the generic types it has mappers for strongly,
+ * both registered and automatically created ones. A class used as an option
+ * type through the global registry is therefore kept for the life of the
+ * registry. Where that matters, parse with a {@link TypeRegistry#child()}
+ * passed to {@link Options.Builder#Builder(TypeRegistry)} and drop it along with
+ * the class loader.
+ * </p>
  */
 final class GenericType {
 
-	/** The cache. */
-	private static Map<String, GenericType> cache = new HashMap<>();
+	/**
+	 * The generic types interned for a class, used either as the type or as the
+	 * type argument.
+	 */
+	private static final class Interned {
+
+		/** The type without a type argument. */
+		final GenericType raw;
+
+		/** The types using this class as their type argument, by type. */
+		final ConcurrentMap<Class<?>, GenericType> parameterized = new ConcurrentHashMap<>();
+
+		/**
+		 * Instantiates the interned types of a class.
+		 *
+		 * @param type the type
+		 */
+		Interned(Class<?> type) {
+			this.raw = new GenericType(type, null);
+		}
+	}
+
+	/**
+	 * The interned types of each class. Parameterized types are held by their
+	 * type argument, which is usually the class more likely to be unloaded, such
+	 * as a plugin class in a {@code List} from the JDK.
+	 */
+	private static final ClassValue<Interned> INTERNED = new ClassValue<Interned>() {
+
+		@Override
+		protected Interned computeValue(Class<?> type) {
+			return new Interned(type);
+		}
+	};
 
 	/**
 	 * Of.
@@ -55,18 +105,29 @@ final class GenericType {
 	 * @return the generic type
 	 */
 	static GenericType of(Class<?> type, Optional<Class<?>> genericType) {
-		final String key = type.getCanonicalName() + "+" + genericType
-				.map(Class::getCanonicalName)
-				.orElse("");
+		return of(type, genericType.orElse(null));
+	}
 
-		if (cache.containsKey(key)) {
-			return cache.get(key);
+	/**
+	 * Of.
+	 *
+	 * @param type        the type
+	 * @param genericType the generic type, or null if none
+	 * @return the generic type
+	 */
+	static GenericType of(Class<?> type, Class<?> genericType) {
+		if (genericType == null) {
+			return INTERNED.get(type).raw;
 		}
 
-		GenericType value = new GenericType(type, genericType);
-		cache.put(key, value);
+		final ConcurrentMap<Class<?>, GenericType> parameterized = INTERNED.get(genericType).parameterized;
 
-		return value;
+		final GenericType interned = parameterized.get(type);
+		if (interned != null) {
+			return interned;
+		}
+
+		return parameterized.computeIfAbsent(type, t -> new GenericType(t, genericType));
 	}
 
 	/** The type. */
@@ -79,11 +140,11 @@ final class GenericType {
 	 * Instantiates a new generic type.
 	 *
 	 * @param type        the type
-	 * @param genericType the generic type
+	 * @param genericType the generic type, or null if none
 	 */
-	private GenericType(Class<?> type, Optional<Class<?>> genericType) {
+	private GenericType(Class<?> type, Class<?> genericType) {
 		this.type = type;
-		this.genericType = genericType.orElse(null);
+		this.genericType = genericType;
 	}
 
 	/**
@@ -137,7 +198,7 @@ final class GenericType {
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(type, genericType);
+		return (31 * type.hashCode()) + Objects.hashCode(genericType);
 	}
 
 	/**
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A list of {@code int} values backed by a primitive array. As an option type,
+ * such as {@code Option.of("ids", IntList.class)}, comma separated values are
+ * parsed directly into the list without boxing each element. The {@code List}
+ * methods box and unbox values, while {@link #getInt(int)}, {@link #addInt(int)}
+ * and {@link #toIntArray()} work with primitives.
+ */
+public final class IntList extends PrimitiveList<Integer, int[]> {
+
+	/**
+	 * Instantiates a new empty list.
+	 */
+	public IntList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty list.
+	 *
+	 * @param capacity the initial capacity
+	 */
+	public IntList(int capacity) {
+		super(new int[capacity]);
+	}
+
+	/**
+	 * Adds the.
+	 *
+	 * @param value the value
+	 * @return true
+	 */
+	@Override
+	public boolean add(Integer value) {
+		addInt(value);
+
+		return true;
+	}
+
+	/**
+	 * Inserts the value.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	@Override
+	public void add(int index, Integer value) {
+		addInt(index, value);
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value
+	 */
+	public void addInt(int value) {
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+		modCount++;
+	}
+
+	/**
+	 * Inserts a value, shifting any values at and after the index to the right.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	public void addInt(int index, int value) {
+		/* The array may be replaced, so it is read only after making room */
+		final int i = openAt(index);
+		elements[i] = value;
+	}
+
+	/**
+	 * Copies the array.
+	 *
+	 * @param elements the elements
+	 * @param length   the length
+	 * @return the copy
+	 */
+	@Override
+	int[] copyOf(int[] elements, int length) {
+		return Arrays.copyOf(elements, length);
+	}
+
+	/**
+	 * Gets the.
+	 *
+	 * @param index the index
+	 * @return the boxed value
+	 */
+	@Override
+	public Integer get(int index) {
+		return getInt(index);
+	}
+
+	/**
+	 * Gets the value.
+	 *
+	 * @param index the index
+	 * @return the value
+	 */
+	public int getInt(int index) {
+		return elements[checkIndex(index)];
+	}
+
+	/**
+	 * Gets the length of the array.
+	 *
+	 * @param elements the elements
+	 * @return the length
+	 */
+	@Override
+	int length(int[] elements) {
+		return elements.length;
+	}
+
+	/**
+	 * Removes the.
+	 *
+	 * @param index the index
+	 * @return the removed value
+	 */
+	@Override
+	public Integer remove(int index) {
+		return removeInt(index);
+	}
+
+	/**
+	 * Removes a value, shifting any following values to the left.
+	 *
+	 * @param index the index
+	 * @return the removed value
+	 */
+	public int removeInt(int index) {
+		final int old = getInt(index);
+		closeAt(index);
+
+		return old;
+	}
+
+	/**
+	 * Sets the.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 * @return the previous value
+	 */
+	@Override
+	public Integer set(int index, Integer value) {
+		return setInt(index, value);
+	}
+
+	/**
+	 * Sets the value.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 * @return the previous value
+	 */
+	public int setInt(int index, int value) {
+		final int old = getInt(index);
+		elements[index] = value;
+
+		return old;
+	}
+
+	/**
+	 * Streams the values.
+	 *
+	 * @return the stream
+	 */
+	public IntStream intStream() {
+		return Arrays.stream(elements, 0, size);
+	}
+
+	/**
+	 * Copies the values to a new array.
+	 *
+	 * @return the array
+	 */
+	public int[] toIntArray() {
+		return copyElements();
+	}
+}
@@ -71,11 +71,125 @@ interface IsMutableOption<T> extends Option<T> {
 	void setAccumulator(Accumulator<T> setter);
 
 	/**
-	 * Sets the value.
+	 * Gets the accumulator.
 	 *
-	 * @param value the new value
+	 * @return the accumulator
 	 */
-	void setValue(T value);
+	Accumulator<T> getAccumulator();
+
+	/**
+	 * Gets the tokenizer for array and collection arguments.
+	 *
+	 * @return the tokenizer
+	 */
+	ValueTokenizer getTokenizer();
+
+	/**
+	 * Dispatches the value of a single match to the option's match handler.
+	 *
+	 * @param value the value
+	 */
+	void dispatchMatch(T value);
+
+	/**
+	 * Checks for a match handler.
+	 *
+	 * @return true, if a match handler is set
+	 */
+	boolean hasMatchHandler();
+
+	/**
+	 * Publishes the result of a parse to this option and any container backing it,
+	 * such as a bean or properties.
+	 *
+	 * @param value      the value
+	 * @param matchCount the match count
+	 */
+	void publish(T value, int matchCount);
+
+	/**
+	 * Checks if the mapper of this option is fixed when it is created. The mapper
+	 * of such an option is not resolved from the type registry.
+	 *
+	 * @return true, if the mapper is fixed
+	 */
+	default boolean isMapperFixed() {
+		return false;
+	}
+
+	/**
+	 * Checks if matches of this option can be deferred and mapped when the value
+	 * is first read, see {@link CompiledParser#parseLazy(String[])}.
+	 *
+	 * @return true, if deferrable
+	 */
+	default boolean isDeferrable() {
+		return true;
+	}
+
+	/**
+	 * Maps the argument of a single match of this option. If the option takes no
+	 * argument, or an optional argument is missing, the mapper's default value is
+	 * used.
+	 *
+	 * @param arg the option argument, or null if none, only valid for the
+	 *            duration of the call
+	 * @return the value
+	 * @throws Throwable if the argument could not be mapped
+	 */
+	@SuppressWarnings("unchecked")
+	default T mapValue(CharSequence arg) throws Throwable {
+		final TypeMapper<T> mapper = getMapper();
+
+		if ((max() == 0) || (arg == null)) {
+			return mapper.defaultValue();
+
+		} else if (mapper instanceof ElementsTypeMapper) {
+			return ((ElementsTypeMapper<T>) mapper).mapElements(arg, getTokenizer());
+
+		} else {
+			return mapper.mapFrom(arg.toString());
+		}
+	}
+
+	/**
+	 * Maps the argument of a single match of this option and accumulates it into
+	 * the parse state.
+	 *
+	 * @param state the parse state
+	 * @param index the option index
+	 * @param arg   the option argument, or null if none, only valid for the
+	 *              duration of the call
+	 * @throws Throwable if the argument could not be mapped
+	 */
+	default void match(ParseState state, int index, CharSequence arg) throws Throwable {
+		if (!state.accumulateInto(index, this, arg)) {
+			state.accumulate(index, this, mapValue(arg));
+		}
+	}
+
+	/**
+	 * Gets the value of this option from the parse state.
+	 *
+	 * @param state the parse state
+	 * @param index the option index
+	 * @return the value, or null if not matched
+	 */
+	@SuppressWarnings("unchecked")
+	default T valueFrom(ParseState state, int index) {
+		return (T) state.value(index);
+	}
+
+	/**
+	 * Publishes the value of this option from the parse state, see
+	 * {@link #publish(Object, int)}.
+	 *
+	 * @param state the parse state
+	 * @param index the option index
+	 */
+	default void publishFrom(ParseState state, int index) {
+		publish(valueFrom(state, index), state.matches(index));
+	}
 
 	/**
 	 * Min.
@@ -98,11 +212,4 @@ interface IsMutableOption<T> extends Option<T> {
 	 */
 	boolean isOptional();
 
-	/**
-	 * Sets the match.
-	 *
-	 * @param b the new match
-	 */
-	void setMatch(boolean b);
-
 }
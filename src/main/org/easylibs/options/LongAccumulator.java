@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * Combines the {@code long} values of repeated option matches for an
+ * {@link LongOption}. It plays the role of an {@link Accumulator} but is a
+ * separate functional interface, not a subtype, so that the values are never
+ * boxed. The accumulated value starts out as 0.
+ */
+public interface LongAccumulator {
+
+	/**
+	 * The last value matched replaces any previous value.
+	 *
+	 * @return the accumulator
+	 */
+	static LongAccumulator last() {
+		return (a, b) -> b;
+	}
+
+	/**
+	 * The values of all matches are combined with a bitwise or, such as the bits
+	 * of a mask.
+	 *
+	 * @return the accumulator
+	 */
+	static LongAccumulator or() {
+		return (a, b) -> a | b;
+	}
+
+	/**
+	 * The values of all matches are added up.
+	 *
+	 * @return the accumulator
+	 */
+	static LongAccumulator sum() {
+		return (a, b) -> a + b;
+	}
+
+	/**
+	 * The number of matches is counted, the values are ignored.
+	 *
+	 * @return the accumulator
+	 */
+	static LongAccumulator count() {
+		return (a, b) -> a + 1;
+	}
+
+	/**
+	 * Perform the accumulate computation.
+	 *
+	 * @param oldValue previous accumulator value
+	 * @param newValue new value
+	 * @return the accumulated value
+	 */
+	long accumulate(long oldValue, long newValue);
+}
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * A list of {@code long} values backed by a primitive array. As an option type,
+ * such as {@code Option.of("offsets", LongList.class)}, comma separated values are
+ * parsed directly into the list without boxing each element. The {@code List}
+ * methods box and unbox values, while {@link #getLong(int)}, {@link #addLong(long)}
+ * and {@link #toLongArray()} work with primitives.
+ */
+public final class LongList extends PrimitiveList<Long, long[]> {
+
+	/**
+	 * Instantiates a new empty list.
+	 */
+	public LongList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty list.
+	 *
+	 * @param capacity the initial capacity
+	 */
+	public LongList(int capacity) {
+		super(new long[capacity]);
+	}
+
+	/**
+	 * Adds the.
+	 *
+	 * @param value the value
+	 * @return true
+	 */
+	@Override
+	public boolean add(Long value) {
+		addLong(value);
+
+		return true;
+	}
+
+	/**
+	 * Inserts the value.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	@Override
+	public void add(int index, Long value) {
+		addLong(index, value);
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value
+	 */
+	public void addLong(long value) {
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+		modCount++;
+	}
+
+	/**
+	 * Inserts a value, shifting any values at and after the index to the right.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 */
+	public void addLong(int index, long value) {
+		/* The array may be replaced, so it is read only after making room */
+		final int i = openAt(index);
+		elements[i] = value;
+	}
+
+	/**
+	 * Copies the array.
+	 *
+	 * @param elements the elements
+	 * @param length   the length
+	 * @return the copy
+	 */
+	@Override
+	long[] copyOf(long[] elements, int length) {
+		return Arrays.copyOf(elements, length);
+	}
+
+	/**
+	 * Gets the.
+	 *
+	 * @param index the index
+	 * @return the boxed value
+	 */
+	@Override
+	public Long get(int index) {
+		return getLong(index);
+	}
+
+	/**
+	 * Gets the value.
+	 *
+	 * @param index the index
+	 * @return the value
+	 */
+	public long getLong(int index) {
+		return elements[checkIndex(index)];
+	}
+
+	/**
+	 * Gets the length of the array.
+	 *
+	 * @param elements the elements
+	 * @return the length
+	 */
+	@Override
+	int length(long[] elements) {
+		return elements.length;
+	}
+
+	/**
+	 * Removes the.
+	 *
+	 * @param index the index
+	 * @return the removed value
+	 */
+	@Override
+	public Long remove(int index) {
+		return removeLong(index);
+	}
+
+	/**
+	 * Removes a value, shifting any following values to the left.
+	 *
+	 * @param index the index
+	 * @return the removed value
+	 */
+	public long removeLong(int index) {
+		final long old = getLong(index);
+		closeAt(index);
+
+		return old;
+	}
+
+	/**
+	 * Sets the.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 * @return the previous value
+	 */
+	@Override
+	public Long set(int index, Long value) {
+		return setLong(index, value);
+	}
+
+	/**
+	 * Sets the value.
+	 *
+	 * @param index the index
+	 * @param value the value
+	 * @return the previous value
+	 */
+	public long setLong(int index, long value) {
+		final long old = getLong(index);
+		elements[index] = value;
+
+		return old;
+	}
+
+	/**
+	 * Streams the values.
+	 *
+	 * @return the stream
+	 */
+	public LongStream longStream() {
+		return Arrays.stream(elements, 0, size);
+	}
+
+	/**
+	 * Copies the values to a new array.
+	 *
+	 * @return the array
+	 */
+	public long[] toLongArray() {
+		return copyElements();
+	}
+}
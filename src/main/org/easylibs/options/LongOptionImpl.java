@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * A {@code long} option. Matches are mapped and accumulated as primitives into
+ * the parse state, the value is only boxed when read generically.
+ */
+class LongOptionImpl extends PrimitiveOption<Long> implements LongOption {
+
+	/** The accumulator. */
+	private final LongAccumulator longAccumulator;
+
+	/** The mapper. */
+	private LongTypeMapper longMapper;
+
+	/** The value, as published by the last parse. */
+	private long value;
+
+	/**
+	 * Instantiates a new long option.
+	 *
+	 * @param name        the name
+	 * @param min         the minimum number of arguments
+	 * @param max         the maximum number of arguments
+	 * @param accumulator the accumulator
+	 */
+	LongOptionImpl(String name, int min, int max, LongAccumulator accumulator) {
+		super(name, long.class, min, max, 0L);
+		this.longAccumulator = accumulator;
+	}
+
+	/**
+	 * Adapts the mapper.
+	 *
+	 * @param mapper the mapper
+	 */
+	@Override
+	void adapt(TypeMapper<Long> mapper) {
+		this.longMapper = (mapper instanceof LongTypeMapper)
+				? (LongTypeMapper) mapper
+				: s -> mapBoxed(mapper, s);
+	}
+
+	/**
+	 * Box from.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 * @return the boxed value
+	 */
+	@Override
+	Long boxFrom(ParseState state, int index) {
+		return Long.valueOf(state.getLong(index));
+	}
+
+	/**
+	 * Gets the long value.
+	 *
+	 * @return the long
+	 */
+	@Override
+	public long getLong() {
+		return value;
+	}
+
+	/**
+	 * Match.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 * @param arg   the arg
+	 * @throws Throwable the throwable
+	 */
+	@Override
+	public void match(ParseState state, int index, CharSequence arg) throws Throwable {
+		final long v = hasArgument(arg) ? longMapper.mapToLong(arg) : defaultValue;
+
+		state.putLong(index, longAccumulator.accumulate(state.getLong(index), v));
+
+		if (hasMatchHandler()) {
+			dispatchMatch(v);
+		}
+	}
+
+	/**
+	 * Publish primitive.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 */
+	@Override
+	void publishPrimitive(ParseState state, int index) {
+		this.value = state.getLong(index);
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A type mapper decorator which caches the values mapped from each argument
+ * string, for expensive mappers such as {@code Class::forName} or ones which
+ * compile patterns or resolve hosts. Only use it for immutable value types, as
+ * the same value is returned for every argument that is equal.
+ * 
+ * <p>
+ * The cache is bounded and safe for concurrent use. Hits do not lock. Once the
+ * cache is full, the oldest entries are evicted first. Arguments which fail to
+ * map are not cached. The number of hits and misses can be read for
+ * monitoring.
+ * </p>
+ *
+ * @param <T> the generic type
+ * @see TypeMapper#memoized(int)
+ * @see TypeRegistry#setMemoized(Class, TypeMapper, int)
+ */
+public final class MemoizedTypeMapper<T> implements TypeMapper<T> {
+
+	/** The mapper. */
+	private final TypeMapper<T> mapper;
+
+	/** The maximum number of entries. */
+	private final int maxEntries;
+
+	/** The cache. */
+	private final ConcurrentMap<String, T> cache = new ConcurrentHashMap<>();
+
+	/** The cached arguments, oldest first. */
+	private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+	/** The hits. */
+	private final LongAdder hits = new LongAdder();
+
+	/** The misses. */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Instantiates a new memoized type mapper.
+	 *
+	 * @param mapper     the mapper
+	 * @param maxEntries the maximum number of entries
+	 * @throws IllegalArgumentException if max entries is not positive
+	 */
+	MemoizedTypeMapper(TypeMapper<T> mapper, int maxEntries) throws IllegalArgumentException {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+		}
+
+		this.mapper = mapper;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Accumulator.
+	 *
+	 * @return the accumulator
+	 */
+	@Override
+	public Accumulator<T> accumulator() {
+		return mapper.accumulator();
+	}
+
+	/**
+	 * Clears the cache. The counters are not reset.
+	 */
+	public void clear() {
+		cache.clear();
+		order.clear();
+	}
+
+	/**
+	 * Default value.
+	 *
+	 * @return the t
+	 */
+	@Override
+	public T defaultValue() {
+		return mapper.defaultValue();
+	}
+
+	/**
+	 * Gets the number of mappings answered from the cache.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the maximum number of entries.
+	 *
+	 * @return the max entries
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Gets the number of mappings delegated to the mapper.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Map from.
+	 *
+	 * @param value the value
+	 * @return the t
+	 * @throws Throwable the throwable
+	 */
+	@Override
+	public T mapFrom(String value) throws Throwable {
+		final T cached = cache.get(value);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+
+		final T mapped = mapper.mapFrom(value);
+		if ((mapped != null) && (cache.putIfAbsent(value, mapped) == null)) {
+			order.add(value);
+
+			while (cache.size() > maxEntries) {
+				final String eldest = order.poll();
+				if (eldest == null) {
+					break;
+				}
+
+				cache.remove(eldest);
+			}
+		}
+
+		return mapped;
+	}
+
+	/**
+	 * Priority.
+	 *
+	 * @return the int
+	 */
+	@Override
+	public int priority() {
+		return mapper.priority();
+	}
+
+	/**
+	 * Gets the number of entries currently cached.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * To string.
+	 *
+	 * @return the string
+	 */
+	@Override
+	public String toString() {
+		return "MemoizedTypeMapper [size=" + size()
+				+ ", maxEntries=" + maxEntries
+				+ ", hits=" + getHitCount()
+				+ ", misses=" + getMissCount()
+				+ "]";
+	}
+}
@@ -23,6 +23,7 @@
  */
 package org.easylibs.options;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -121,6 +122,22 @@ import java.util.function.Consumer;
  * {@code TypeRegistry.register(MyEnum.class, MyEnum::valueOf)}.
  * </p>
  * 
+ * <p>
+ * Options with {@code int}, {@code long}, {@code double} and {@code boolean}
+ * values can also be created as primitive options, which parse, accumulate and
+ * return their values without boxing. For example a verbosity level given as
+ * {@code -vvv}:
+ * </p>
+ * 
+ * <code>
+ * <pre>
+ * IntOption verbose = Option.ofCounter("v");
+ * IntOption jobs = Option.ofInt("jobs");
+ * Args.of(argv, verbose, jobs);
+ * int level = verbose.getInt();
+ * </pre>
+ * </code>
+ * 
  * 
  * @param <T> the generic type of the option's value
  */
@@ -161,6 +178,128 @@ public interface Option<T> {
 		return new SimpleOption<>(name, type, false);
 	}
 
+	/**
+	 * A flag option, without an argument, with a primitive boolean value.
+	 *
+	 * @param name the name
+	 * @return the option
+	 */
+	public static BooleanOption ofBoolean(String name) {
+		return new BooleanOptionImpl(name, 0, 0);
+	}
+
+	/**
+	 * An option, without an argument, whose primitive int value is the number of
+	 * times it was matched, such as {@code -vvv}.
+	 *
+	 * @param name the name
+	 * @return the option
+	 */
+	public static IntOption ofCounter(String name) {
+		return new IntOptionImpl(name, 0, 0, IntAccumulator.count());
+	}
+
+	/**
+	 * An option with a required double argument, the last match wins.
+	 *
+	 * @param name the name
+	 * @return the option
+	 */
+	public static DoubleOption ofDouble(String name) {
+		return ofDouble(name, DoubleAccumulator.last());
+	}
+
+	/**
+	 * An option with a required double argument, accumulated on every match.
+	 *
+	 * @param name        the name
+	 * @param accumulator the accumulator
+	 * @return the option
+	 */
+	public static DoubleOption ofDouble(String name, DoubleAccumulator accumulator) {
+		return new DoubleOptionImpl(name, 1, 1, accumulator);
+	}
+
+	/**
+	 * An option with a required list of enum constant names, such as
+	 * {@code --codecs=h264,vp9}, parsed into a bit mask of the constant ordinals.
+	 * Names are matched ignoring case and the masks of repeated matches are
+	 * combined, without allocating a set.
+	 * 
+	 * <code>
+	 * <pre>
+	 * long codecs = args.getLong(option);
+	 * boolean vp9 = (codecs &amp; (1L &lt;&lt; Codec.VP9.ordinal())) != 0;
+	 * </pre>
+	 * </code>
+	 *
+	 * @param <E>      the enum type
+	 * @param name     the name
+	 * @param enumType the enum type, with at most 64 constants
+	 * @return the option
+	 * @throws IllegalArgumentException if the enum has more than 64 constants
+	 */
+	public static <E extends Enum<E>> LongOption ofEnumMask(String name, Class<E> enumType)
+			throws IllegalArgumentException {
+		return new EnumMaskOptionImpl<>(name, enumType);
+	}
+
+	/**
+	 * An option with a required list of enum constant names, such as
+	 * {@code --levels=info,warn}, parsed into an {@link EnumSet}. Names are
+	 * matched ignoring case and the sets of repeated matches are combined.
+	 *
+	 * @param <E>      the enum type
+	 * @param name     the name
+	 * @param enumType the enum type
+	 * @return the option
+	 */
+	public static <E extends Enum<E>> Option<EnumSet<E>> ofEnumSet(String name, Class<E> enumType) {
+		return new EnumSetOptionImpl<>(name, enumType);
+	}
+
+	/**
+	 * An option with a required int argument, the last match wins.
+	 *
+	 * @param name the name
+	 * @return the option
+	 */
+	public static IntOption ofInt(String name) {
+		return ofInt(name, IntAccumulator.last());
+	}
+
+	/**
+	 * An option with a required int argument, accumulated on every match.
+	 *
+	 * @param name        the name
+	 * @param accumulator the accumulator
+	 * @return the option
+	 */
+	public static IntOption ofInt(String name, IntAccumulator accumulator) {
+		return new IntOptionImpl(name, 1, 1, accumulator);
+	}
+
+	/**
+	 * An option with a required long argument, the last match wins.
+	 *
+	 * @param name the name
+	 * @return the option
+	 */
+	public static LongOption ofLong(String name) {
+		return ofLong(name, LongAccumulator.last());
+	}
+
+	/**
+	 * An option with a required long argument, accumulated on every match.
+	 *
+	 * @param name        the name
+	 * @param accumulator the accumulator
+	 * @return the option
+	 */
+	public static LongOption ofLong(String name, LongAccumulator accumulator) {
+		return new LongOptionImpl(name, 1, 1, accumulator);
+	}
+
 	/**
 	 * Named optional.
 	 *
@@ -194,8 +333,10 @@ public interface Option<T> {
 	String getName();
 
 	/**
-	 * Gets the current value of the option. If the option is not matched the value
-	 * will be set to its default value.
+	 * Gets the current value of the option, as published by the last parse, see
+	 * {@link Args#publish()}. If the option is not matched the value will be set to
+	 * its default value. To read the value of a specific parse use
+	 * {@link ParseResult#getValue(Option)}.
 	 *
 	 * @return the option value and can be the default value or even null
 	 */
@@ -211,7 +352,8 @@ public interface Option<T> {
 	}
 
 	/**
-	 * Checks if the option is matched on the command line
+	 * Checks if the option is matched on the command line, as published by the
+	 * last parse, see {@link Args#publish()}
 	 *
 	 * @return true, if found on the command line, otherwise false
 	 */
@@ -242,10 +384,23 @@ public interface Option<T> {
 
 	/**
 	 * When the option is matched on the command line, execute the supplied action
-	 * on the option's value
+	 * on the value of that match, for every kind of option. Values of repeated
+	 * matches are accumulated separately and are available once parsing
+	 * completes. A collection value may be reused to accumulate the values of
+	 * later matches, so it is only valid for the duration of the action.
 	 *
 	 * @param action the action to perform on a successful option match
 	 * @return the current option for call chaining
 	 */
 	Option<T> onMatch(Consumer<T> action);
+
+	/**
+	 * Sets the tokenizer used to split the argument of an array or collection
+	 * option into its elements. By default arguments are split on commas, see
+	 * {@link ValueTokenizer#COMMA}. Options of other types ignore the tokenizer.
+	 *
+	 * @param tokenizer the tokenizer
+	 * @return the current option for call chaining
+	 */
+	Option<T> splitWith(ValueTokenizer tokenizer);
 }
@@ -26,7 +26,10 @@ package org.easylibs.options;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.function.Consumer;
 
@@ -109,14 +112,17 @@ public interface Options extends OptionGroup {
 	 */
 	public static class Builder {
 
-		/** The registry. */
-		private final TypeRegistry registry;
+		/** The registry, a child of the global registry once a type is mapped. */
+		private TypeRegistry registry;
+
+		/** The registry is private to this builder. */
+		private boolean ownsRegistry;
 
 		/** The list. */
 		private final List<Option<?>> list = new ArrayList<>();
 
-		/** The actions. */
-		private final List<Consumer<Option<?>>> actions = new ArrayList<>();
+		/** The match handlers, by option name. */
+		private final Map<String, List<Consumer<?>>> handlers = new LinkedHashMap<>();
 
 		/**
 		 * Instantiates a new builder.
@@ -125,17 +131,30 @@ public interface Options extends OptionGroup {
 			this.registry = TypeRegistry.global();
 		}
 
+		/**
+		 * Instantiates a new builder, which resolves option types using the
+		 * supplied registry, such as a {@link TypeRegistry#child()} shared by a
+		 * group of tools.
+		 *
+		 * @param registry the registry
+		 */
+		public Builder(TypeRegistry registry) {
+			this.registry = Objects.requireNonNull(registry, "registry");
+		}
+
 		/**
 		 * Builds the.
 		 *
 		 * @return the options
 		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
 		public Options build() {
 
 			final OptionsImpl options = new OptionsImpl(registry);
 
-			list.forEach(option -> actions.forEach(action -> action.accept(option)));
 			options.addAll(list);
+			handlers.forEach((name, named) -> options.find(name)
+					.ifPresent(option -> named.forEach(handler -> option.onMatch((Consumer) handler))));
 
 			return options;
 		}
@@ -199,7 +218,8 @@ public interface Options extends OptionGroup {
 		}
 
 		/**
-		 * Map type.
+		 * Maps a type for the options of this builder only. The mapping is set on
+		 * a child of the builder's registry, so it does not affect other builders.
 		 *
 		 * @param <T>    the generic type
 		 * @param type   the type
@@ -207,6 +227,11 @@ public interface Options extends OptionGroup {
 		 * @return the builder
 		 */
 		public <T> Builder mapType(Class<T> type, TypeMapper<T> mapper) {
+			if (!ownsRegistry) {
+				this.registry = registry.child();
+				this.ownsRegistry = true;
+			}
+
 			this.registry.set(type, mapper);
 
 			return this;
@@ -222,15 +247,11 @@ public interface Options extends OptionGroup {
 		 * @return the builder
 		 * @throws OptionNotFoundException the option not found exception
 		 */
-		@SuppressWarnings({ "unchecked", "rawtypes" })
 		public <T> Builder onMatch(final String name, final Class<T> type, final Consumer<T> handler)
 				throws OptionNotFoundException {
 
-			this.actions.add(option -> {
-				if (option.getName().equals(name)) {
-					option.onMatch((Consumer) handler);
-				}
-			});
+			this.handlers.computeIfAbsent(name, k -> new ArrayList<>())
+					.add(handler);
 
 			return this;
 		}
@@ -269,6 +290,16 @@ public interface Options extends OptionGroup {
 		}
 	}
 
+	/**
+	 * Compiles these options into a reusable command line parser. The parser
+	 * option tables are built only once, on the first call, and the same compiled
+	 * parser is returned on every subsequent call.
+	 *
+	 * @return the compiled parser
+	 * @see CompiledParser
+	 */
+	CompiledParser compile();
+
 	/**
 	 * Factory options builder that builds by scanning for beans.
 	 *
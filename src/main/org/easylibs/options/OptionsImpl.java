@@ -24,9 +24,14 @@
 package org.easylibs.options;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -112,6 +117,18 @@ final class OptionsImpl implements Options {
 	/** The user options. */
 	protected final List<IsMutableOption<?>> userOptions = new ArrayList<>();
 
+	/** Option name to index into user options. */
+	private final Map<String, Integer> nameIndex = new HashMap<>();
+
+	/**
+	 * ASCII char to index into user options, for single letter options. Value of
+	 * -1 means there is no option for that char.
+	 */
+	private final int[] shortIndex = new int[128];
+
+	/** The compiled parser, built on first use. */
+	private volatile PosixParser compiled;
+
 	/**
 	 * Instantiates a new options manager.
 	 *
@@ -119,6 +136,8 @@ final class OptionsImpl implements Options {
 	 */
 	OptionsImpl(TypeRegistry registry) {
 		this.registry = registry;
+
+		Arrays.fill(shortIndex, -1);
 	}
 
 	/**
@@ -136,11 +155,18 @@ final class OptionsImpl implements Options {
 			throw new IllegalArgumentException("immutable option " + option.getName());
 		}
 
-		if (this.userOptions.contains(option)) {
+		final String name = option.getName();
+		if (this.nameIndex.containsKey(name)) {
 			throw new DuplicateOptionException(option.toString());
 		}
 
+		final int index = this.userOptions.size();
 		this.userOptions.add((IsMutableOption<?>) option);
+		this.nameIndex.put(name, index);
+
+		if ((name.length() == 1) && (name.charAt(0) < shortIndex.length)) {
+			this.shortIndex[name.charAt(0)] = index;
+		}
 
 		resolveTypeMapper((IsMutableOption<?>) option);
 
@@ -166,8 +192,9 @@ final class OptionsImpl implements Options {
 			throw new IllegalStateException("trying to add invalid/immutable option " + immutable.get().getName());
 		}
 
+		final Set<String> names = new HashSet<>();
 		final Optional<Option<?>> dup = options.stream()
-				.filter(this.userOptions::contains)
+				.filter(o -> this.nameIndex.containsKey(o.getName()) || !names.add(o.getName()))
 				.findAny();
 		if (dup.isPresent()) {
 			throw new DuplicateOptionException(dup.get().toString());
@@ -178,17 +205,34 @@ final class OptionsImpl implements Options {
 		return options;
 	}
 
+	/**
+	 * Compile.
+	 *
+	 * @return the compiled parser
+	 */
+	@Override
+	public CompiledParser compile() {
+		PosixParser parser = compiled;
+		if (parser == null) {
+			synchronized (this) {
+				parser = compiled;
+				if (parser == null) {
+					compiled = parser = new PosixParser(this);
+				}
+			}
+		}
+
+		return parser;
+	}
+
 	/**
 	 * Find.
 	 *
 	 * @param name the name
 	 * @return the optional
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public Optional<Option<?>> find(String name) {
-		return (Optional) userOptions.stream()
-				.filter(o -> o.getName().equals(name))
-				.findAny();
+		return Optional.ofNullable(lookup(name));
 	}
 
 	/**
@@ -202,11 +246,12 @@ final class OptionsImpl implements Options {
 	@SuppressWarnings({ "unchecked" })
 	@Override
 	public <T> Optional<Option<T>> find(String name, Class<T> type) {
-		return userOptions.stream()
-				.filter(o -> o.getName().equals(name))
-				.filter(o -> type == null || (o.getType() == type))
-				.map(o -> (Option<T>) o)
-				.findAny();
+		final IsMutableOption<?> option = lookup(name);
+		if ((option == null) || ((type != null) && (option.getType() != type))) {
+			return Optional.empty();
+		}
+
+		return Optional.of((Option<T>) option);
 	}
 
 	/**
@@ -217,15 +262,12 @@ final class OptionsImpl implements Options {
 	 * @throws OptionNotFoundException the option not found exception
 	 */
 	public Option<?> get(String name) throws OptionNotFoundException {
-		final Optional<IsMutableOption<?>> option = userOptions.stream()
-				.filter(o -> o.getName().equals(name))
-				.findAny();
-
-		if (!option.isPresent()) {
+		final IsMutableOption<?> option = lookup(name);
+		if (option == null) {
 			throw new OptionNotFoundException(name);
 		}
 
-		return option.get();
+		return option;
 	}
 
 	/**
@@ -239,16 +281,12 @@ final class OptionsImpl implements Options {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> Option<T> get(String name, Class<T> type) throws OptionNotFoundException {
-		Optional<IsMutableOption<?>> option = userOptions.stream()
-				.filter(o -> o.getName().equals(name))
-				.filter(o -> o.getType() == type)
-				.findAny();
-
-		if (!option.isPresent()) {
+		final IsMutableOption<?> option = lookup(name);
+		if ((option == null) || (option.getType() != type)) {
 			throw new OptionNotFoundException(name);
 		}
 
-		return (Option<T>) option.get();
+		return (Option<T>) option;
 	}
 
 	/**
@@ -337,6 +375,65 @@ final class OptionsImpl implements Options {
 		return Optional.ofNullable(opt.isMatched() ? opt : null);
 	}
 
+	/**
+	 * Index of the option within these options.
+	 *
+	 * @param option the option
+	 * @return the index, or -1 if not found
+	 */
+	int indexOf(Option<?> option) {
+		final Integer index = nameIndex.get(option.getName());
+
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Index of the single letter option within these options.
+	 *
+	 * @param ch the option char
+	 * @return the index, or -1 if not found
+	 */
+	int indexOf(char ch) {
+		if (ch < shortIndex.length) {
+			return shortIndex[ch];
+		}
+
+		final Integer index = nameIndex.get(String.valueOf(ch));
+
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Gets the option at index.
+	 *
+	 * @param index the index
+	 * @return the option
+	 */
+	IsMutableOption<?> get(int index) {
+		return userOptions.get(index);
+	}
+
+	/**
+	 * Lookup an option by name using the name index.
+	 *
+	 * @param name the name
+	 * @return the option or null if not found
+	 */
+	private IsMutableOption<?> lookup(String name) {
+		final Integer index = nameIndex.get(name);
+
+		return (index == null) ? null : userOptions.get(index);
+	}
+
+	/**
+	 * The number of options.
+	 *
+	 * @return the size
+	 */
+	int size() {
+		return userOptions.size();
+	}
+
 	/**
 	 * Mutable stream.
 	 *
@@ -363,13 +460,17 @@ final class OptionsImpl implements Options {
 	}
 
 	/**
-	 * Resolve type mapper.
+	 * Resolve type mapper. An option whose mapper is fixed keeps it.
 	 *
 	 * @param option the option
 	 * @throws TypeMapperNotFoundException the type mapper not found exception
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public void resolveTypeMapper(IsMutableOption<?> option) throws TypeMapperNotFoundException {
+		if (option.isMapperFixed()) {
+			return;
+		}
+
 		final TypeMapper mapper = (TypeMapper) registry
 				.getOrElseAutoCreate(option.getType(), option.getGenericType());
 
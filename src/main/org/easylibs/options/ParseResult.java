@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * <p>
+ * The state of a single command line parse. A parse result holds the option
+ * values, option match counts and operands found on one command line, while the
+ * {@link Options} and {@link Option} definitions it was parsed with remain
+ * unchanged. Many threads can therefore parse against the same options at the
+ * same time, each receiving its own result.
+ * </p>
+ * 
+ * <h2>Example</h2>
+ * 
+ * <code>
+ * <pre>
+ * final Option&lt;Integer&gt; count = Option.of("count", int.class);
+ * final CompiledParser parser = Options.of(count).compile();
+ * 
+ * final ParseResult result = parser.parse(argv);
+ * if (result.isMatched(count)) {
+ * 	System.out.println("count=" + result.getValue(count));
+ * }
+ * </pre>
+ * </code>
+ * 
+ * @see Args
+ * @see CompiledParser
+ */
+public interface ParseResult {
+
+	/**
+	 * Gets the number of times the option was matched on the command line.
+	 *
+	 * @param option the option to check
+	 * @return the match count, 0 if the option was not found on the command line
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	int getMatchCount(Option<?> option) throws OptionNotFoundException;
+
+	/**
+	 * Gets the operands. Operands are command line arguments which are neither
+	 * options nor option arguments.
+	 *
+	 * @return the operands
+	 */
+	List<String> getOperands();
+
+	/**
+	 * Gets the option value from this parse. If an option was matched multiple
+	 * times, the value is the result of the option's accumulator.
+	 *
+	 * @param <T>    the option value type
+	 * @param option the option
+	 * @return the value, or null if the option was not matched
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	<T> T getValue(Option<T> option) throws OptionNotFoundException;
+
+	/**
+	 * Gets the named option value from this parse.
+	 *
+	 * @param <T>  the option value type
+	 * @param name the option name
+	 * @param type the option type
+	 * @return the value, or null if the option was not matched
+	 * @throws OptionNotFoundException if no option with the name and type was
+	 *                                 part of the options parsed
+	 */
+	<T> T getValue(String name, Class<T> type) throws OptionNotFoundException;
+
+	/**
+	 * Gets the int option value from this parse, without boxing.
+	 *
+	 * @param option the option
+	 * @return the value, or 0 if the option was not matched
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	int getInt(IntOption option) throws OptionNotFoundException;
+
+	/**
+	 * Gets the long option value from this parse, without boxing.
+	 *
+	 * @param option the option
+	 * @return the value, or 0 if the option was not matched
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	long getLong(LongOption option) throws OptionNotFoundException;
+
+	/**
+	 * Gets the double option value from this parse, without boxing.
+	 *
+	 * @param option the option
+	 * @return the value, or 0 if the option was not matched
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	double getDouble(DoubleOption option) throws OptionNotFoundException;
+
+	/**
+	 * Gets the boolean option value from this parse, without boxing.
+	 *
+	 * @param option the option
+	 * @return the value, or false if the option was not matched
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	boolean getBoolean(BooleanOption option) throws OptionNotFoundException;
+
+	/**
+	 * Gets the option value from this parse, only if the option was matched and
+	 * the value is there.
+	 *
+	 * @param <T>    the option value type
+	 * @param option the option
+	 * @return the optional value, this method never returns null
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	default <T> Optional<T> getOptionalValue(Option<T> option) throws OptionNotFoundException {
+		return Optional.ofNullable(getValue(option));
+	}
+
+	/**
+	 * Checks if the option was matched on the command line.
+	 *
+	 * @param option the option
+	 * @return true, if found on the command line, otherwise false
+	 * @throws OptionNotFoundException if the option was not part of the options
+	 *                                 parsed
+	 */
+	default boolean isMatched(Option<?> option) throws OptionNotFoundException {
+		return getMatchCount(option) > 0;
+	}
+}
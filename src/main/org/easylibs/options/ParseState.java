@@ -0,0 +1,340 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per parse option state. Values and match counts are stored in arrays indexed
+ * by the option's position within its {@link OptionsImpl}, which leaves the
+ * option definitions themselves untouched by the parser. Primitive options keep
+ * their values unboxed in a separate array of raw long bits.
+ */
+final class ParseState {
+
+	/**
+	 * A match whose argument is mapped when the option's value is first read.
+	 */
+	static final class Deferred {
+
+		/** The option argument, or null if none. */
+		final String arg;
+
+		/** The option as matched on the command line, for error messages. */
+		final String match;
+
+		/** The order of the match among all deferred matches of the parse. */
+		final int order;
+
+		/**
+		 * Instantiates a new deferred match.
+		 *
+		 * @param arg   the arg
+		 * @param match the match
+		 * @param order the order
+		 */
+		Deferred(String arg, String match, int order) {
+			this.arg = arg;
+			this.match = match;
+			this.order = order;
+		}
+	}
+
+	/** The values. */
+	private final Object[] values;
+
+	/** The match counts. */
+	private final int[] matches;
+
+	/** The accumulator builders of options matched, until finished. */
+	private final Accumulator.Builder<?>[] builders;
+
+	/** The values of primitive options, as raw long bits. */
+	private final long[] primitives;
+
+	/** The deferred matches of each option, until resolved. */
+	private final List<?>[] deferred;
+
+	/** The number of matches deferred. */
+	private int deferredCount;
+
+	/**
+	 * Instantiates a new parse state.
+	 *
+	 * @param size the number of options
+	 */
+	ParseState(int size) {
+		this.values = new Object[size];
+		this.matches = new int[size];
+		this.primitives = new long[size];
+		this.builders = new Accumulator.Builder<?>[size];
+		this.deferred = new List<?>[size];
+	}
+
+	/**
+	 * Appends a new value to the option's accumulator builder and dispatches the
+	 * value of this match to the option's match handler. The accumulated value is
+	 * only produced by {@link #finish()}.
+	 *
+	 * @param <T>    the generic type
+	 * @param index  the option index
+	 * @param option the option
+	 * @param value  the new value
+	 */
+	<T> void accumulate(int index, IsMutableOption<T> option, T value) {
+		append(index, option, value);
+		matches[index]++;
+	}
+
+	/**
+	 * Maps the elements of a match straight into the collection accumulating the
+	 * values of the option's previous matches, instead of into a new collection
+	 * for the match. This is only done when the option has no match handler,
+	 * which would need the value of the match, and its mapper and accumulator
+	 * support it.
+	 *
+	 * @param <T>    the generic type
+	 * @param index  the option index
+	 * @param option the option
+	 * @param arg    the option argument, or null if none
+	 * @return true, if the match was accumulated, false if it must be mapped and
+	 *         accumulated as a value
+	 * @throws Throwable if an element could not be mapped
+	 */
+	@SuppressWarnings("unchecked")
+	<T> boolean accumulateInto(int index, IsMutableOption<T> option, CharSequence arg) throws Throwable {
+		if ((arg == null)
+				|| (option.max() == 0)
+				|| option.hasMatchHandler()
+				|| !(builders[index] instanceof CollectionAccumulator.CollectionBuilder)
+				|| !(option.getMapper() instanceof ElementsTypeMapper)) {
+			return false;
+		}
+
+		final T target = (T) ((CollectionAccumulator.CollectionBuilder<?>) builders[index]).collection();
+		if ((target == null)
+				|| !((ElementsTypeMapper<T>) option.getMapper()).mapElementsInto(arg, option.getTokenizer(), target)) {
+			return false;
+		}
+
+		matches[index]++;
+
+		return true;
+	}
+
+	/**
+	 * Appends a value to the option's accumulator builder and dispatches it to
+	 * the option's match handler, without counting a match.
+	 *
+	 * @param <T>    the generic type
+	 * @param index  the option index
+	 * @param option the option
+	 * @param value  the value
+	 */
+	@SuppressWarnings("unchecked")
+	<T> void append(int index, IsMutableOption<T> option, T value) {
+		Accumulator.Builder<T> builder = (Accumulator.Builder<T>) builders[index];
+		if (builder == null) {
+			builder = option.getAccumulator().begin();
+			builders[index] = builder;
+		}
+
+		builder.append(value);
+
+		option.dispatchMatch(value);
+	}
+
+	/**
+	 * Defers a match, recording only its argument. The match is counted, but
+	 * mapped and accumulated only when resolved.
+	 *
+	 * @param index the option index
+	 * @param arg   the option argument, or null if none
+	 * @param match the option as matched on the command line
+	 */
+	@SuppressWarnings("unchecked")
+	void defer(int index, CharSequence arg, String match) {
+		if (deferred[index] == null) {
+			deferred[index] = new ArrayList<Deferred>(2);
+		}
+
+		((List<Deferred>) deferred[index]).add(new Deferred((arg == null) ? null : arg.toString(), match,
+				deferredCount++));
+	}
+
+	/**
+	 * Gets the deferred matches of an option, in the order they were matched.
+	 *
+	 * @param index the option index
+	 * @return the deferred matches, empty if none or already resolved
+	 */
+	@SuppressWarnings("unchecked")
+	List<Deferred> deferred(int index) {
+		return (deferred[index] == null) ? Collections.emptyList() : (List<Deferred>) deferred[index];
+	}
+
+	/**
+	 * Discards the values appended while resolving an option which failed.
+	 *
+	 * @param index the option index
+	 */
+	void discard(int index) {
+		builders[index] = null;
+	}
+
+	/**
+	 * Checks if an option has deferred matches which are not resolved yet.
+	 *
+	 * @param index the option index
+	 * @return true, if deferred
+	 */
+	boolean isDeferred(int index) {
+		return deferred[index] != null;
+	}
+
+	/**
+	 * Completes resolving the deferred matches of an option, after all of them
+	 * have been appended, and produces its accumulated value.
+	 *
+	 * @param index the option index
+	 */
+	void resolved(int index) {
+		matches[index] += deferred[index].size();
+		deferred[index] = null;
+
+		if (builders[index] != null) {
+			values[index] = builders[index].finish();
+			builders[index] = null;
+		}
+	}
+
+	/**
+	 * Produces the accumulated values of all the options matched. Called once at
+	 * the end of the parse.
+	 */
+	void finish() {
+		for (int i = 0; i < builders.length; i++) {
+			if (builders[i] != null) {
+				values[i] = builders[i].finish();
+				builders[i] = null;
+			}
+		}
+	}
+
+	/**
+	 * Gets a primitive double value.
+	 *
+	 * @param index the option index
+	 * @return the value, 0 if not matched
+	 */
+	double getDouble(int index) {
+		return Double.longBitsToDouble(primitives[index]);
+	}
+
+	/**
+	 * Gets a primitive int value.
+	 *
+	 * @param index the option index
+	 * @return the value, 0 if not matched
+	 */
+	int getInt(int index) {
+		return (int) primitives[index];
+	}
+
+	/**
+	 * Gets a primitive long value.
+	 *
+	 * @param index the option index
+	 * @return the value, 0 if not matched
+	 */
+	long getLong(int index) {
+		return primitives[index];
+	}
+
+	/**
+	 * Stores a primitive double value for a match of the option.
+	 *
+	 * @param index the option index
+	 * @param value the accumulated value
+	 */
+	void putDouble(int index, double value) {
+		primitives[index] = Double.doubleToRawLongBits(value);
+		matches[index]++;
+	}
+
+	/**
+	 * Stores a primitive int value for a match of the option.
+	 *
+	 * @param index the option index
+	 * @param value the accumulated value
+	 */
+	void putInt(int index, int value) {
+		primitives[index] = value;
+		matches[index]++;
+	}
+
+	/**
+	 * Stores a primitive long value for a match of the option.
+	 *
+	 * @param index the option index
+	 * @param value the accumulated value
+	 */
+	void putLong(int index, long value) {
+		primitives[index] = value;
+		matches[index]++;
+	}
+
+	/**
+	 * Match count.
+	 *
+	 * @param index the option index
+	 * @return the count
+	 */
+	int matches(int index) {
+		return (deferred[index] == null) ? matches[index] : matches[index] + deferred[index].size();
+	}
+
+	/**
+	 * Publishes the state to the option at index.
+	 *
+	 * @param <T>    the generic type
+	 * @param index  the option index
+	 * @param option the option
+	 */
+	<T> void publish(int index, IsMutableOption<T> option) {
+		option.publishFrom(this, index);
+	}
+
+	/**
+	 * Value.
+	 *
+	 * @param index the option index
+	 * @return the value
+	 */
+	Object value(int index) {
+		return values[index];
+	}
+}
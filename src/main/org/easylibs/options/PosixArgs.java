@@ -23,19 +23,24 @@
  */
 package org.easylibs.options;
 
-import static org.easylibs.getopt.PosixGetopt.LONG_OPT;
-import static org.easylibs.getopt.PosixGetopt.NO_MORE_OPTIONS;
-
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.easylibs.getopt.ArgumentSource;
+import org.easylibs.getopt.GetoptEvent;
 import org.easylibs.getopt.PosixGetopt;
 import org.easylibs.getopt.PosixLongOption;
-import org.easylibs.getopt.PosixLongOption.HasArg;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -43,145 +48,386 @@ import org.easylibs.getopt.PosixLongOption.HasArg;
  */
 class PosixArgs extends Args {
 
-	/** The args. */
-	private final String[] args;
+	/**
+	 * Holds the scheduler used to time out asynchronous mappings, created on
+	 * first use.
+	 */
+	private static final class Timeouts {
+
+		/** The scheduler. */
+		static final ScheduledExecutorService SCHEDULER;
+
+		static {
+			final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+				final Thread thread = new Thread(r, "cmdline-options-timeout");
+				thread.setDaemon(true);
+
+				return thread;
+			});
+			scheduler.setRemoveOnCancelPolicy(true);
+
+			SCHEDULER = scheduler;
+		}
+	}
+
+	/**
+	 * A deferred match being mapped asynchronously. The match is mapped by
+	 * running it as a task on the executor. The timeout starts when the task
+	 * starts, so time spent waiting in the executor's queue does not count
+	 * against it. A task which times out is interrupted.
+	 */
+	private final class PendingMatch implements Runnable {
+
+		/** The option index. */
+		final int index;
+
+		/** The option. */
+		final IsMutableOption<Object> option;
+
+		/** The deferred match. */
+		final ParseState.Deferred deferred;
+
+		/** The mapped value. */
+		final CompletableFuture<Object> value = new CompletableFuture<>();
+
+		/** The timeout, or 0 for none. */
+		private final long timeout;
+
+		/** The timeout unit. */
+		private final TimeUnit unit;
+
+		/** The thread running the mapping, null when not running. */
+		private Thread thread;
+
+		/**
+		 * Instantiates a new pending match.
+		 *
+		 * @param index    the option index
+		 * @param option   the option
+		 * @param deferred the deferred match
+		 * @param timeout  the timeout, or 0 for none
+		 * @param unit     the timeout unit
+		 */
+		PendingMatch(int index, IsMutableOption<Object> option, ParseState.Deferred deferred, long timeout,
+				TimeUnit unit) {
+			this.index = index;
+			this.option = option;
+			this.deferred = deferred;
+			this.timeout = timeout;
+			this.unit = unit;
+		}
+
+		/**
+		 * Maps the match, unless it already timed out or was cancelled.
+		 */
+		@Override
+		public void run() {
+			if (value.isDone()) {
+				return;
+			}
+
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
+
+			final ScheduledFuture<?> timer = (timeout > 0)
+					? Timeouts.SCHEDULER.schedule(this::timeout, timeout, unit)
+					: null;
+
+			try {
+				value.complete(option.mapValue(deferred.arg));
+			} catch (Throwable e) {
+				value.completeExceptionally(mappingFailure(deferred, option, e));
+			} finally {
+				if (timer != null) {
+					timer.cancel(false);
+				}
+
+				synchronized (this) {
+					thread = null;
+				}
+
+				/* Don't leak the interrupt of a timed out mapping to the executor */
+				if (isTimedOut()) {
+					Thread.interrupted();
+				}
+			}
+		}
+
+		/**
+		 * Fails the mapping with a timeout and interrupts it, if still running.
+		 */
+		private synchronized void timeout() {
+			final TimeoutException cause = new TimeoutException("mapping timed out after " + timeout + " " + unit);
+
+			if ((thread != null) && value.completeExceptionally(invalidArgument(deferred.match, option, cause))) {
+				thread.interrupt();
+			}
+		}
+
+		/**
+		 * Checks if the mapping timed out.
+		 *
+		 * @return true, if timed out
+		 */
+		private boolean isTimedOut() {
+			final Throwable failure = failure();
+
+			return (failure != null) && (failure.getCause() instanceof TimeoutException);
+		}
+
+		/**
+		 * Gets the failure, if the mapping failed.
+		 *
+		 * @return the failure, or null
+		 */
+		Throwable failure() {
+			if (!value.isCompletedExceptionally()) {
+				return null;
+			}
 
-	/** The posix. */
+			try {
+				value.join();
+				return null;
+			} catch (CompletionException e) {
+				return (e.getCause() != null) ? e.getCause() : e;
+			} catch (RuntimeException e) {
+				return e;
+			}
+		}
+	}
+
+	/** The args, null until read when parsing from a source. */
+	private String[] args;
+
+	/** The source of the args, if not parsing an args array. */
+	private final ArgumentSource source;
+
+	/** The getopt used to parse the args. */
 	private PosixGetopt posix;
 
-	/** The unmatched args. */
-	private final List<String> unmatchedArgs = new ArrayList<>();
+	/**
+	 * The indexes of the unmatched args, pairs of start and end indexes. The
+	 * args themselves are only read once requested.
+	 */
+	private int[] unmatchedRanges = new int[8];
+
+	/** The number of values used in the unmatched ranges array. */
+	private int unmatchedLength;
+
+	/** The number of args parsed, the end of the matched and unmatched args. */
+	private int parsedLength;
+
+	/** The unmatched args, null until requested. */
+	private List<String> unmatchedArgs;
 
-	/** The matched args. */
-	private final List<String> matchedArgs = new ArrayList<>();
+	/** The matched args, null until requested. */
+	private List<String> matchedArgs;
 
 	/** The options. */
 	private final OptionsImpl options;
 
+	/** The compiled parser. */
+	private final PosixParser parser;
+
+	/** The option values and match counts of this parse. */
+	private final ParseState state;
+
+	/** Defer mapping option arguments until values are read. */
+	private final boolean lazy;
+
+	/** The memoized failures of resolving deferred options, allocated on demand. */
+	private InvalidArgException[] failures;
+
 	/**
 	 * Instantiates a new posix args.
 	 *
-	 * @param args    the args
-	 * @param options the options
+	 * @param args   the args
+	 * @param parser the compiled parser
+	 * @param lazy   defer mapping option arguments until values are read
 	 */
-	PosixArgs(String[] args, Options options) {
-		this.options = (OptionsImpl) options;
+	PosixArgs(String[] args, PosixParser parser, boolean lazy) {
+		this.parser = parser;
+		this.options = parser.options();
 		this.args = args;
+		this.source = null;
+		this.state = new ParseState(options.size());
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Instantiates a new posix args which reads the args from a source.
+	 *
+	 * @param source the source
+	 * @param parser the compiled parser
+	 * @param lazy   defer mapping option arguments until values are read
+	 */
+	PosixArgs(ArgumentSource source, PosixParser parser, boolean lazy) {
+		this.parser = parser;
+		this.options = parser.options();
+		this.args = null;
+		this.source = source;
+		this.state = new ParseState(options.size());
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Gets the args.
+	 *
+	 * @return the args
+	 */
+	@Override
+	public String[] getArgs() {
+		if ((args == null) && (posix != null)) {
+			args = new String[posix.argc()];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = posix.argv(i);
+			}
+		}
+
+		return this.args;
 	}
 
 	/**
-	 * Builds the.
+	 * Gets the matched args.
 	 *
-	 * @return the posix getopt
+	 * @return the matched args
 	 */
-	private PosixGetopt build() {
+	@Override
+	public List<String> getMatchedArgs() {
+		if (matchedArgs == null) {
+			matchedArgs = new ArrayList<>();
 
-		final String shortOptions = buildShortOptions();
-		final List<PosixLongOption> longOptions = buildLongOptions();
+			int next = 0;
+			for (int r = 0; r < unmatchedLength; r += 2) {
+				addArgs(matchedArgs, next, unmatchedRanges[r]);
+				next = unmatchedRanges[r + 1];
+			}
 
-//		System.out.printf("PosixGetopt('%s', %s)%n",
-//				shortOptions,
-//				longOptions.stream().map(o -> o.name()).collect(Collectors.toList()));
+			addArgs(matchedArgs, next, parsedLength);
+		}
 
-		return new PosixGetopt(
-				shortOptions,
-				longOptions);
+		return matchedArgs;
 	}
 
 	/**
-	 * Builds the long option.
+	 * Reads a range of args into a list.
 	 *
-	 * @param option the option
-	 * @return the posix long option
+	 * @param list  the list
+	 * @param start the start index, inclusive
+	 * @param end   the end index, exclusive
 	 */
-	private PosixLongOption buildLongOption(IsMutableOption<?> option) {
-		if (option.getName().length() < 2) {
-			throw new IllegalArgumentException();
+	private void addArgs(List<String> list, int start, int end) {
+		for (int i = start; i < end; i++) {
+			list.add(posix.argv(i));
 		}
+	}
 
-		final String name = option.getName();
-		final HasArg hasArg = option.max() == 0
-				? HasArg.NO
-				: option.isOptional()
-						? HasArg.OPTIONAL
-					: HasArg.REQUIRED;
+	/**
+	 * Records an unmatched arg, merging with the last range if adjacent.
+	 *
+	 * @param index the index of the arg
+	 */
+	private void addUnmatched(int index) {
+		if ((unmatchedLength > 0) && (unmatchedRanges[unmatchedLength - 1] == index)) {
+			unmatchedRanges[unmatchedLength - 1] = index + 1;
+			return;
+		}
 
-		final PosixLongOption longOption = new PosixLongOption(name, hasArg);
-		longOption.setOpaque(option);
+		if (unmatchedLength == unmatchedRanges.length) {
+			unmatchedRanges = Arrays.copyOf(unmatchedRanges, unmatchedLength * 2);
+		}
 
-		return longOption;
+		unmatchedRanges[unmatchedLength++] = index;
+		unmatchedRanges[unmatchedLength++] = index + 1;
 	}
 
 	/**
-	 * Builds the long options.
+	 * Gets the options.
 	 *
-	 * @return the list
+	 * @return the options
 	 */
-	private List<PosixLongOption> buildLongOptions() {
-		return options.mutableStream()
-				.filter(o -> (o.getName().length() > 1))
-				.map(this::buildLongOption)
-				.collect(Collectors.toList());
-
+	@Override
+	public Options getOptions() {
+		return options;
 	}
 
 	/**
-	 * Builds the short option.
+	 * Gets the match count.
 	 *
 	 * @param option the option
-	 * @return the string
+	 * @return the match count
+	 * @throws OptionNotFoundException the option not found exception
 	 */
-	private String buildShortOption(IsMutableOption<?> option) {
-
-		if (option.getName().length() != 1) {
-			throw new IllegalArgumentException();
-		}
+	@Override
+	public int getMatchCount(Option<?> option) throws OptionNotFoundException {
+		return state.matches(indexOf(option));
+	}
 
-		final String arg = (option.max() > 0 ? ":" : "") + (option.isOptional() ? ":" : "");
+	/**
+	 * Gets the value.
+	 *
+	 * @param <T>    the generic type
+	 * @param option the option
+	 * @return the value
+	 * @throws OptionNotFoundException the option not found exception
+	 * @throws UncheckedArgException   if a deferred argument could not be mapped
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T getValue(Option<T> option) throws OptionNotFoundException, UncheckedArgException {
+		final int index = indexOf(option);
+		resolveUnchecked(index);
 
-		return option.getName() + arg;
+		return ((IsMutableOption<T>) options.get(index)).valueFrom(state, index);
 	}
 
 	/**
-	 * Builds the short options.
+	 * Gets the int.
 	 *
-	 * @return the string
+	 * @param option the option
+	 * @return the int
+	 * @throws OptionNotFoundException the option not found exception
 	 */
-	private String buildShortOptions() {
-		return options.mutableStream()
-				.filter(o -> (o.getName().length() == 1))
-				.map(this::buildShortOption)
-				.reduce(":", (a, b) -> a + b);
+	@Override
+	public int getInt(IntOption option) throws OptionNotFoundException {
+		return state.getInt(indexOf(option));
 	}
 
 	/**
-	 * Gets the args.
+	 * Gets the long.
 	 *
-	 * @return the args
+	 * @param option the option
+	 * @return the long
+	 * @throws OptionNotFoundException the option not found exception
 	 */
 	@Override
-	public String[] getArgs() {
-		return this.args;
+	public long getLong(LongOption option) throws OptionNotFoundException {
+		return state.getLong(indexOf(option));
 	}
 
 	/**
-	 * Gets the matched args.
+	 * Gets the double.
 	 *
-	 * @return the matched args
+	 * @param option the option
+	 * @return the double
+	 * @throws OptionNotFoundException the option not found exception
 	 */
 	@Override
-	public List<String> getMatchedArgs() {
-		return matchedArgs;
+	public double getDouble(DoubleOption option) throws OptionNotFoundException {
+		return state.getDouble(indexOf(option));
 	}
 
 	/**
-	 * Gets the options.
+	 * Gets the boolean.
 	 *
-	 * @return the options
+	 * @param option the option
+	 * @return the boolean
+	 * @throws OptionNotFoundException the option not found exception
 	 */
 	@Override
-	public Options getOptions() {
-		return options;
+	public boolean getBoolean(BooleanOption option) throws OptionNotFoundException {
+		return state.getInt(indexOf(option)) != 0;
 	}
 
 	/**
@@ -191,54 +437,273 @@ class PosixArgs extends Args {
 	 */
 	@Override
 	public List<String> getUnmatchedArgs() {
+		if (unmatchedArgs == null) {
+			unmatchedArgs = new ArrayList<>();
+
+			for (int r = 0; r < unmatchedLength; r += 2) {
+				addArgs(unmatchedArgs, unmatchedRanges[r], unmatchedRanges[r + 1]);
+			}
+		}
+
 		return unmatchedArgs;
 	}
 
+	/**
+	 * Index of the option within the parsed options.
+	 *
+	 * @param option the option
+	 * @return the index
+	 * @throws OptionNotFoundException the option not found exception
+	 */
+	private int indexOf(Option<?> option) throws OptionNotFoundException {
+		final int index = options.indexOf(option);
+		if (index == -1) {
+			throw new OptionNotFoundException(option.getName());
+		}
+
+		return index;
+	}
+
+	/**
+	 * Index of the option an event was produced for.
+	 *
+	 * @param event the option or error event
+	 * @return the index, or -1 if not a known option
+	 */
+	private int indexOf(GetoptEvent event) {
+		final PosixLongOption longOption = event.getLongOption();
+		if (longOption != null) {
+			return longOption.getOpaque(IsMutableOption.class)
+					.map(options::indexOf)
+					.orElse(-1);
+		}
+
+		final char ch = event.isError() ? event.getOptionChar() : event.getCode();
+
+		return options.indexOf(ch);
+	}
+
 	/**
 	 * On option match.
 	 *
-	 * @param option           the option
-	 * @param exceptionHandler the exception handler
+	 * @param index the option index
+	 * @param event the option event
+	 * @throws InvalidArgException the invalid arg exception
+	 */
+	private void onOptionMatch(int index, GetoptEvent event) throws InvalidArgException {
+
+		final IsMutableOption<?> option = options.get(index);
+		final CharSequence arg = (option.max() > 0) ? event.getArgumentChars() : null;
+
+		if (lazy && option.isDeferrable()) {
+			state.defer(index, arg, matchOf(event));
+			return;
+		}
+
+		try {
+			option.match(state, index, arg);
+		} catch (RuntimeException e) {
+			if (arg == null) {
+				throw e;
+			}
+
+			throw invalidArgument(matchOf(event), option, e);
+		} catch (Throwable e) {
+			throw invalidArgument(matchOf(event), option, e);
+		}
+	}
+
+	/**
+	 * Gets the option as matched on the command line.
+	 *
+	 * @param event the option event
+	 * @return the match
 	 */
-	private void onOptionMatch(IsMutableOption<?> option, Consumer<InvalidArgException> exceptionHandler) {
+	private static String matchOf(GetoptEvent event) {
+		return (event.getMatch() != null) ? event.getMatch() : "-" + event.getCode();
+	}
+
+	/**
+	 * Creates the exception for an option argument which could not be mapped.
+	 *
+	 * @param match  the option as matched on the command line
+	 * @param option the option
+	 * @param cause  the cause
+	 * @return the invalid arg exception
+	 */
+	private InvalidArgException invalidArgument(String match, Option<?> option, Throwable cause) {
+		return new InvalidArgException(this, "option '" + match + "'" + " invalid argument", option, cause);
+	}
 
-		@SuppressWarnings("unchecked")
-		final IsMutableOption<Object> mutable = (IsMutableOption<Object>) option;
-		final TypeMapper<?> mapper = option.getMapper();
+	/**
+	 * Maps and accumulates the deferred matches of an option, in the order they
+	 * were matched. The value, or the failure, is memoized.
+	 *
+	 * @param index the option index
+	 * @throws InvalidArgException if an argument could not be mapped
+	 */
+	@SuppressWarnings("unchecked")
+	private void resolve(int index) throws InvalidArgException {
+		if (!state.isDeferred(index)) {
+			return;
+		}
 
-		if (option.max() > 0) {
+		if ((failures != null) && (failures[index] != null)) {
+			throw failures[index];
+		}
 
-			final String arg = posix.optarg();
-			if (arg != null) {
+		final IsMutableOption<Object> option = (IsMutableOption<Object>) options.get(index);
+		for (ParseState.Deferred deferred : state.deferred(index)) {
+			try {
+				state.append(index, option, option.mapValue(deferred.arg));
+			} catch (Throwable e) {
+				state.discard(index);
 
-				try {
-					mutable.setValue(mapper.mapFrom(arg));
-				} catch (Throwable e) {
-//					e.printStackTrace();
-					exceptionHandler.accept(
-							new InvalidArgException(this, "option '" + posix.optmatch() + "'"
-									+ " invalid argument", option, e));
-					return;
+				final Throwable failure = mappingFailure(deferred, option, e);
+				if (failure instanceof InvalidArgException) {
+					throw failed(index, (InvalidArgException) failure);
 				}
 
-			} else {
+				throw (RuntimeException) failure;
+			}
+		}
+
+		state.resolved(index);
+	}
+
+	/**
+	 * Gets the failure to report for a deferred match which could not be mapped.
+	 * As when matching, runtime exceptions for options without an argument are
+	 * reported as is.
+	 *
+	 * @param deferred the deferred match
+	 * @param option   the option
+	 * @param cause    the cause
+	 * @return the invalid arg exception, or the runtime exception cause
+	 */
+	private Throwable mappingFailure(ParseState.Deferred deferred, Option<?> option, Throwable cause) {
+		if ((cause instanceof RuntimeException) && (deferred.arg == null)) {
+			return cause;
+		}
 
-				mutable.setValue(mapper.defaultValue());
+		return invalidArgument(deferred.match, option, cause);
+	}
+
+	/**
+	 * Maps all deferred matches concurrently on the executor. Once all are
+	 * mapped, the values are accumulated in the order they were matched, on the
+	 * thread which completed the last mapping, and the returned future completes
+	 * with these args. If any mapping fails or times out, the future completes
+	 * exceptionally with the failure of the earliest match, usually an
+	 * {@link InvalidArgException}. The timeout of each mapping starts when the
+	 * executor starts running it and a mapping which times out is interrupted.
+	 *
+	 * @param executor the executor which runs the type mappers
+	 * @param timeout  the timeout of each mapping, or 0 for none
+	 * @param unit     the timeout unit
+	 * @return the future args
+	 */
+	@SuppressWarnings("unchecked")
+	CompletableFuture<Args> resolveAsync(Executor executor, long timeout, TimeUnit unit) {
+		final List<PendingMatch> pending = new ArrayList<>();
+
+		for (int i = 0; i < options.size(); i++) {
+			final IsMutableOption<Object> option = (IsMutableOption<Object>) options.get(i);
+
+			for (ParseState.Deferred deferred : state.deferred(i)) {
+				pending.add(new PendingMatch(i, option, deferred, timeout, unit));
 			}
-		} else {
-			mutable.setValue(mapper.defaultValue());
 		}
+
+		pending.sort(Comparator.comparingInt(p -> p.deferred.order));
+
+		for (PendingMatch p : pending) {
+			try {
+				executor.execute(p);
+			} catch (RuntimeException e) {
+				p.value.completeExceptionally(e);
+			}
+		}
+
+		final CompletableFuture<Args> result = new CompletableFuture<>();
+
+		CompletableFuture.allOf(pending.stream()
+				.map(p -> p.value)
+				.toArray(CompletableFuture[]::new))
+				.whenComplete((v, e) -> {
+					try {
+						for (PendingMatch p : pending) {
+							final Throwable failure = p.failure();
+							if (failure != null) {
+								result.completeExceptionally(failure);
+								return;
+							}
+						}
+
+						for (PendingMatch p : pending) {
+							state.append(p.index, (IsMutableOption<Object>) options.get(p.index), p.value.join());
+						}
+
+						for (int i = 0; i < options.size(); i++) {
+							if (state.isDeferred(i)) {
+								state.resolved(i);
+							}
+						}
+
+						result.complete(this);
+
+					} catch (Throwable t) {
+						result.completeExceptionally(t);
+					}
+				});
+
+		return result;
 	}
 
 	/**
-	 * On option match.
+	 * Memoizes the failure of resolving an option.
 	 *
-	 * @param option           the option
-	 * @param exceptionHandler the exception handler
+	 * @param index   the option index
+	 * @param failure the failure
+	 * @return the failure
 	 */
-	private void onOptionMatch(PosixLongOption option, Consumer<InvalidArgException> exceptionHandler) {
-		option.getOpaque(IsMutableOption.class)
-				.ifPresent(mu -> onOptionMatch(mu, exceptionHandler));
+	private InvalidArgException failed(int index, InvalidArgException failure) {
+		if (failures == null) {
+			failures = new InvalidArgException[options.size()];
+		}
+
+		failures[index] = failure;
+
+		return failure;
+	}
+
+	/**
+	 * Resolves all deferred option matches.
+	 *
+	 * @return the args
+	 * @throws InvalidArgException if an argument could not be mapped
+	 */
+	@Override
+	public Args resolveAll() throws InvalidArgException {
+		for (int i = 0; i < options.size(); i++) {
+			resolve(i);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Resolves the deferred matches of an option, see {@link #resolve(int)}.
+	 *
+	 * @param index the option index
+	 * @throws UncheckedArgException if an argument could not be mapped
+	 */
+	private void resolveUnchecked(int index) throws UncheckedArgException {
+		try {
+			resolve(index);
+		} catch (InvalidArgException e) {
+			throw new UncheckedArgException(e);
+		}
 	}
 
 	/**
@@ -251,57 +716,53 @@ class PosixArgs extends Args {
 	public Args parse()
 			throws UnrecognizedArgException, InvalidArgException {
 
-		this.posix = build();
-		posix.setArgs(args);
+		this.posix = parser.newGetopt();
+		if (source != null) {
+			posix.setArgs(source);
+		} else {
+			posix.setArgs(args);
+		}
 		posix.setPosixlyCorrect(false);
+		posix.setPermuteArgs(false);
 
-		final AtomicReference<InvalidArgException> eHandler = new AtomicReference<>();
-
-		char opt = 0;
-		while ((opt = posix.getopt(o -> onOptionMatch(o, eHandler::set))) != NO_MORE_OPTIONS) {
-
-			if (eHandler.get() != null) {
-				throw eHandler.get();
-			}
-
-			switch (opt) {
-
-			case LONG_OPT: {
-				continue; // Handled through onOptionMatch
-			}
+		final Iterator<GetoptEvent> events = posix.iterator();
+		while (events.hasNext()) {
+			final GetoptEvent event = events.next();
 
-			case PosixGetopt.ERROR_MISSING_ARG: {
-				final Option<?> option = options.get("" + posix.optchar());
-				final String arg = "'" + args[posix.index()] + "'";
+			switch (event.getKind()) {
 
-				throw new InvalidArgException(this, "required arg is missing for option " + arg, option);
+			case OPTION: {
+				final int index = indexOf(event);
+				if (index != -1) {
+					onOptionMatch(index, event);
+				}
+				break;
 			}
 
-			case PosixGetopt.ERROR_UNRECOGNIZED_OPT: {
-				final String arg = "'" + args[posix.index()] + "'";
-				throw new UnrecognizedArgException(this, "option not recognized " + arg, posix.optarg());
+			case OPERAND: {
+				addUnmatched(event.getIndex());
+				parsedLength = event.getIndex() + 1;
+				break;
 			}
 
-			default:
-				final String optName = "" + opt;
+			case ERROR: {
+				final String arg = "'" + posix.argv(event.getIndex()) + "'";
 
-				options.mutableStream()
-						.filter(o -> o.getName().equals(optName))
-						.forEach(o -> onOptionMatch(o, eHandler::set));
+				if (event.getCode() == PosixGetopt.ERROR_MISSING_ARG) {
+					final int index = indexOf(event);
+					final Option<?> option = (index == -1) ? null : options.get(index);
 
-				if (eHandler.get() != null) {
-					throw eHandler.get();
+					throw new InvalidArgException(this, "required arg is missing for option " + arg, option);
 				}
+
+				throw new UnrecognizedArgException(this, "option not recognized " + arg, event.getArgument());
+			}
 			}
 		}
 
-		for (int i = 0; i < posix.index(); i++) {
-			matchedArgs.add(args[i]);
-		}
+		parsedLength = posix.argc();
 
-		while (posix.index() < args.length) {
-			unmatchedArgs.add(args[posix.index(1)]);
-		}
+		state.finish();
 
 		validate();
 
@@ -309,20 +770,20 @@ class PosixArgs extends Args {
 	}
 
 	/**
-	 * Parses the.
+	 * Publish.
 	 *
-	 * @param errorHandler the error handler
-	 * @return the optional
+	 * @return the args
+	 * @throws UncheckedArgException the unchecked arg exception
 	 */
-	public Optional<Args> parseOptional(Consumer<ArgException> errorHandler) {
-		try {
-			return Optional.of(parse());
-		} catch (UnrecognizedArgException | InvalidArgException e) {
-
-			errorHandler.accept(e);
-
-			return Optional.empty();
+	@Override
+	public Args publish() throws UncheckedArgException {
+		final List<IsMutableOption<?>> list = options.userOptions;
+		for (int i = 0; i < list.size(); i++) {
+			resolveUnchecked(i);
+			state.publish(i, list.get(i));
 		}
+
+		return this;
 	}
 
 	/**
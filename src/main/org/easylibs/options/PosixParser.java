@@ -0,0 +1,240 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.easylibs.getopt.ArgumentSource;
+import org.easylibs.getopt.PosixGetopt;
+import org.easylibs.getopt.PosixLongOption;
+import org.easylibs.getopt.PosixLongOption.HasArg;
+
+/**
+ * The POSIX implementation of a compiled parser. The short option string and
+ * the long option definitions are built and compiled once into a template
+ * {@link PosixGetopt}, whose option tables are shared by all
+ * {@link PosixArgs} parses.
+ */
+final class PosixParser implements CompiledParser {
+
+	/** The options. */
+	private final OptionsImpl options;
+
+	/** The short options. */
+	private final String shortOptions;
+
+	/** The long options. */
+	private final List<PosixLongOption> longOptions;
+
+	/** The template getopt holding the compiled option tables. */
+	private final PosixGetopt template;
+
+	/**
+	 * Instantiates a new posix parser.
+	 *
+	 * @param options the options
+	 */
+	PosixParser(OptionsImpl options) {
+		this.options = options;
+		this.shortOptions = buildShortOptions(options);
+		this.longOptions = Collections.unmodifiableList(buildLongOptions(options));
+		this.template = new PosixGetopt(shortOptions, longOptions);
+	}
+
+	/**
+	 * Builds the long option.
+	 *
+	 * @param option the option
+	 * @return the posix long option
+	 */
+	private static PosixLongOption buildLongOption(IsMutableOption<?> option) {
+		if (option.getName().length() < 2) {
+			throw new IllegalArgumentException();
+		}
+
+		final String name = option.getName();
+		final HasArg hasArg = option.max() == 0
+				? HasArg.NO
+				: option.isOptional()
+						? HasArg.OPTIONAL
+						: HasArg.REQUIRED;
+
+		final PosixLongOption longOption = new PosixLongOption(name, hasArg);
+		longOption.setOpaque(option);
+
+		return longOption;
+	}
+
+	/**
+	 * Builds the long options.
+	 *
+	 * @param options the options
+	 * @return the list
+	 */
+	private static List<PosixLongOption> buildLongOptions(OptionsImpl options) {
+		return options.mutableStream()
+				.filter(o -> (o.getName().length() > 1))
+				.map(PosixParser::buildLongOption)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Builds the short options.
+	 *
+	 * @param options the options
+	 * @return the string
+	 */
+	private static String buildShortOptions(OptionsImpl options) {
+		final StringBuilder b = new StringBuilder(":");
+
+		options.mutableStream()
+				.filter(o -> (o.getName().length() == 1))
+				.forEach(o -> b.append(o.getName())
+						.append(o.max() > 0 ? ":" : "")
+						.append(o.isOptional() ? ":" : ""));
+
+		return b.toString();
+	}
+
+	/**
+	 * Gets the options.
+	 *
+	 * @return the options
+	 */
+	@Override
+	public Options getOptions() {
+		return options;
+	}
+
+	/**
+	 * Creates a new getopt instance, ready for a new parse, sharing the compiled
+	 * option tables of the template.
+	 *
+	 * @return the posix getopt
+	 */
+	PosixGetopt newGetopt() {
+		return new PosixGetopt(template);
+	}
+
+	/**
+	 * Gets the options implementation.
+	 *
+	 * @return the options impl
+	 */
+	OptionsImpl options() {
+		return options;
+	}
+
+	/**
+	 * Parses the.
+	 *
+	 * @param args the args
+	 * @return the args
+	 * @throws UnrecognizedArgException the unrecognized arg exception
+	 * @throws InvalidArgException      the invalid arg exception
+	 */
+	@Override
+	public Args parse(String[] args) throws UnrecognizedArgException, InvalidArgException {
+		return new PosixArgs(args, this, false).parse();
+	}
+
+	/**
+	 * Parses the.
+	 *
+	 * @param source the source
+	 * @return the args
+	 * @throws UnrecognizedArgException the unrecognized arg exception
+	 * @throws InvalidArgException      the invalid arg exception
+	 */
+	@Override
+	public Args parse(ArgumentSource source) throws UnrecognizedArgException, InvalidArgException {
+		return new PosixArgs(source, this, false).parse();
+	}
+
+	/**
+	 * Parses the async.
+	 *
+	 * @param args     the args
+	 * @param executor the executor
+	 * @param timeout  the timeout
+	 * @param unit     the unit
+	 * @return the future args
+	 */
+	@Override
+	public CompletableFuture<Args> parseAsync(String[] args, Executor executor, long timeout, TimeUnit unit) {
+		final PosixArgs result = new PosixArgs(args, this, true);
+
+		try {
+			result.parse();
+		} catch (UnrecognizedArgException | InvalidArgException e) {
+			final CompletableFuture<Args> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+
+			return failed;
+		}
+
+		return result.resolveAsync(executor, timeout, unit);
+	}
+
+	/**
+	 * Parses the lazy.
+	 *
+	 * @param args the args
+	 * @return the args
+	 * @throws UnrecognizedArgException the unrecognized arg exception
+	 * @throws InvalidArgException      the invalid arg exception
+	 */
+	@Override
+	public Args parseLazy(String[] args) throws UnrecognizedArgException, InvalidArgException {
+		return new PosixArgs(args, this, true).parse();
+	}
+
+	/**
+	 * Parses the lazy.
+	 *
+	 * @param source the source
+	 * @return the args
+	 * @throws UnrecognizedArgException the unrecognized arg exception
+	 * @throws InvalidArgException      the invalid arg exception
+	 */
+	@Override
+	public Args parseLazy(ArgumentSource source) throws UnrecognizedArgException, InvalidArgException {
+		return new PosixArgs(source, this, true).parse();
+	}
+
+	/**
+	 * To string.
+	 *
+	 * @return the string
+	 */
+	@Override
+	public String toString() {
+		return "PosixParser [shortOptions='" + shortOptions + "', longOptions=" + longOptions.size() + "]";
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * The storage shared by the lists of primitive values, {@link IntList},
+ * {@link LongList} and {@link DoubleList}. The elements are kept in a
+ * primitive array of type {@code A} which grows as needed. Subclasses read
+ * and write the array directly and box values only in the {@code List}
+ * methods.
+ *
+ * @param <E> the boxed element type
+ * @param <A> the primitive array type
+ */
+abstract class PrimitiveList<E, A> extends AbstractList<E> implements RandomAccess {
+
+	/** The default capacity. */
+	static final int DEFAULT_CAPACITY = 10;
+
+	/** The elements. */
+	A elements;
+
+	/** The size. */
+	int size;
+
+	/**
+	 * Instantiates a new empty list.
+	 *
+	 * @param elements the initial elements array
+	 */
+	PrimitiveList(A elements) {
+		this.elements = elements;
+	}
+
+	/**
+	 * Adds all the values. Values of another list of the same type are copied
+	 * without boxing.
+	 *
+	 * @param values the values
+	 * @return true, if the list changed
+	 */
+	@Override
+	public final boolean addAll(Collection<? extends E> values) {
+		if (values.getClass() != getClass()) {
+			return super.addAll(values);
+		}
+
+		final PrimitiveList<?, ?> other = (PrimitiveList<?, ?>) values;
+		final int count = other.size;
+		ensureCapacity(size + count);
+		System.arraycopy(other.elements, 0, elements, size, count);
+		size += count;
+		modCount++;
+
+		return count != 0;
+	}
+
+	/**
+	 * Checks that the index is of an existing element.
+	 *
+	 * @param index the index
+	 * @return the index
+	 */
+	final int checkIndex(int index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Clear.
+	 */
+	@Override
+	public final void clear() {
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Copies the array.
+	 *
+	 * @param elements the elements
+	 * @param length   the length of the copy
+	 * @return the copy
+	 */
+	abstract A copyOf(A elements, int length);
+
+	/**
+	 * Ensures the capacity, growing the elements by at least half.
+	 *
+	 * @param capacity the minimum capacity
+	 */
+	final void ensureCapacity(int capacity) {
+		final int length = length(elements);
+		if (capacity > length) {
+			elements = copyOf(elements, Math.max(capacity, length + (length >> 1) + 1));
+		}
+	}
+
+	/**
+	 * Gets the length of the array.
+	 *
+	 * @param elements the elements
+	 * @return the length
+	 */
+	abstract int length(A elements);
+
+	/**
+	 * Makes room for a new element, shifting any elements at and after the index
+	 * to the right.
+	 *
+	 * @param index the index of the new element
+	 * @return the index
+	 */
+	final int openAt(int index) {
+		if ((index < 0) || (index > size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		size++;
+		modCount++;
+
+		return index;
+	}
+
+	/**
+	 * Removes the element at the index, shifting any following elements to the
+	 * left.
+	 *
+	 * @param index the index
+	 */
+	final void closeAt(int index) {
+		removeRange(checkIndex(index), index + 1);
+	}
+
+	/**
+	 * Removes the elements in the range with a single copy.
+	 *
+	 * @param fromIndex the from index, inclusive
+	 * @param toIndex   the to index, exclusive
+	 */
+	@Override
+	protected final void removeRange(int fromIndex, int toIndex) {
+		System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+		size -= toIndex - fromIndex;
+		modCount++;
+	}
+
+	/**
+	 * Size.
+	 *
+	 * @return the size
+	 */
+	@Override
+	public final int size() {
+		return size;
+	}
+
+	/**
+	 * Copies the values to a new array.
+	 *
+	 * @return the array
+	 */
+	final A copyElements() {
+		return copyOf(elements, size);
+	}
+}
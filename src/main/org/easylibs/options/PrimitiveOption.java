@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * The base of the options whose values are mapped and kept in the parse state
+ * as primitives, {@link IntOptionImpl}, {@link LongOptionImpl},
+ * {@link DoubleOptionImpl} and {@link BooleanOptionImpl}. Subclasses read and
+ * write the parse state in their primitive type and box the value only when
+ * it is read generically.
+ *
+ * @param <T> the boxed value type
+ */
+abstract class PrimitiveOption<T> extends SimpleOption<T> {
+
+	/** The value used when none is given, unless the mapper has a default. */
+	private final T noValue;
+
+	/**
+	 * The value used when matched without an argument, or when a generic mapper
+	 * maps an argument to null.
+	 */
+	T defaultValue;
+
+	/**
+	 * Instantiates a new primitive option.
+	 *
+	 * @param name    the name
+	 * @param type    the primitive type
+	 * @param min     the minimum number of arguments
+	 * @param max     the maximum number of arguments
+	 * @param noValue the value used when none is given and the mapper has no
+	 *                default
+	 */
+	PrimitiveOption(String name, Class<T> type, int min, int max, T noValue) {
+		super(name, type, min, max);
+		this.noValue = noValue;
+		this.defaultValue = noValue;
+	}
+
+	/**
+	 * Adapts the mapper to the primitive mapper used by the subclass.
+	 *
+	 * @param mapper the mapper
+	 */
+	abstract void adapt(TypeMapper<T> mapper);
+
+	/**
+	 * Gets the boxed value from the parse state.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 * @return the boxed value
+	 */
+	abstract T boxFrom(ParseState state, int index);
+
+	/**
+	 * Checks if the match has an argument to map.
+	 *
+	 * @param arg the arg
+	 * @return true, if the arg should be mapped
+	 */
+	final boolean hasArgument(CharSequence arg) {
+		return (max() > 0) && (arg != null);
+	}
+
+	/**
+	 * Primitive values are cheap to parse and are always matched eagerly.
+	 *
+	 * @return false
+	 */
+	@Override
+	public final boolean isDeferrable() {
+		return false;
+	}
+
+	/**
+	 * Maps an argument through a generic mapper. A primitive option cannot hold
+	 * null, so a null from the mapper is replaced by the default value.
+	 *
+	 * @param mapper the mapper
+	 * @param arg    the arg
+	 * @return the value, never null
+	 * @throws Throwable the throwable
+	 */
+	final T mapBoxed(TypeMapper<T> mapper, CharSequence arg) throws Throwable {
+		final T value = mapper.mapFrom(arg.toString());
+
+		return (value == null) ? defaultValue : value;
+	}
+
+	/**
+	 * Publish from.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 */
+	@Override
+	public final void publishFrom(ParseState state, int index) {
+		publishPrimitive(state, index);
+
+		super.publishFrom(state, index);
+	}
+
+	/**
+	 * Publishes the primitive value from the parse state.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 */
+	abstract void publishPrimitive(ParseState state, int index);
+
+	/**
+	 * Sets the mapper, adapting a generic mapper to a primitive one if needed.
+	 *
+	 * @param mapper the new mapper
+	 */
+	@Override
+	public void setMapper(TypeMapper<T> mapper) {
+		super.setMapper(mapper);
+
+		final T d = mapper.defaultValue();
+		this.defaultValue = (d == null) ? noValue : d;
+
+		adapt(mapper);
+	}
+
+	/**
+	 * Value from.
+	 *
+	 * @param state the state
+	 * @param index the index
+	 * @return the boxed value, or null if not matched
+	 */
+	@Override
+	public final T valueFrom(ParseState state, int index) {
+		return (state.matches(index) > 0) ? boxFrom(state, index) : null;
+	}
+}
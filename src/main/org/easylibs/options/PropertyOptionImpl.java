@@ -35,11 +35,13 @@ class PropertyOptionImpl extends SimpleOption<String> implements PropertyOption
 	}
 
 	@Override
-	public void setValue(String value) {
+	public void publish(String value, int matchCount) {
 
-		properties.setProperty(getName(), (value == null) ? "1" : value);
+		if (matchCount > 0) {
+			properties.setProperty(getName(), (value == null) ? "1" : value);
+		}
 
-		super.setValue(value);
+		super.publish(value, matchCount);
 	}
 
 	/**
@@ -38,7 +38,7 @@ class SimpleOption<T> implements Option<T>, IsMutableOption<T> {
 	/** The name. */
 	private final String name;
 	
-	/** The option value. */
+	/** The option value, as published by the last parse. */
 	private T optionValue;
 	
 	/** The type. */
@@ -59,10 +59,13 @@ class SimpleOption<T> implements Option<T>, IsMutableOption<T> {
 	/** The on match. */
 	private Optional<Consumer<T>> onMatch = Optional.empty();
 
+	/** The tokenizer for array and collection arguments. */
+	private ValueTokenizer tokenizer = ValueTokenizer.COMMA;
+
 	/** The accumulator. */
 	protected Accumulator<T> accumulator = Accumulator.identity();
 	
-	/** The match count. */
+	/** The match count, as published by the last parse. */
 	private int matchCount;
 
 	/**
@@ -84,6 +87,22 @@ class SimpleOption<T> implements Option<T>, IsMutableOption<T> {
 		}
 	}
 
+	/**
+	 * Instantiates a new simple option with an explicit argument count.
+	 *
+	 * @param name the name
+	 * @param type the type
+	 * @param min  the minimum number of arguments
+	 * @param max  the maximum number of arguments
+	 */
+	SimpleOption(String name, Class<T> type, int min, int max) {
+		this.name = name;
+		this.type = type;
+		this.optional = (min == 0) && (max > 0);
+		this.min = min;
+		this.max = max;
+	}
+
 	/**
 	 * Equals.
 	 *
@@ -191,14 +210,46 @@ class SimpleOption<T> implements Option<T>, IsMutableOption<T> {
 	}
 
 	/**
-	 * Sets the match.
+	 * Split with.
+	 *
+	 * @param tokenizer the tokenizer
+	 * @return the option
+	 */
+	@Override
+	public Option<T> splitWith(ValueTokenizer tokenizer) {
+		this.tokenizer = Objects.requireNonNull(tokenizer, "tokenizer");
+		return this;
+	}
+
+	/**
+	 * Gets the tokenizer.
 	 *
-	 * @param b the new match
+	 * @return the tokenizer
 	 */
 	@Override
-	public void setMatch(boolean b) {
-		this.matchCount += (b ? 1 : -1);
-		onMatch.ifPresent(h -> h.accept(this.optionValue));
+	public ValueTokenizer getTokenizer() {
+		return tokenizer;
+	}
+
+	/**
+	 * Dispatch match.
+	 *
+	 * @param value the value
+	 */
+	@Override
+	public void dispatchMatch(T value) {
+		onMatch.ifPresent(h -> h.accept(value));
+	}
+
+	/**
+	 * Checks for a match handler, so that primitive values only need to be boxed
+	 * for dispatch when there is one.
+	 *
+	 * @return true, if a match handler is set
+	 */
+	@Override
+	public boolean hasMatchHandler() {
+		return onMatch.isPresent();
 	}
 
 	/**
@@ -225,22 +276,25 @@ class SimpleOption<T> implements Option<T>, IsMutableOption<T> {
 	}
 
 	/**
-	 * Sets the value.
+	 * Gets the accumulator.
 	 *
-	 * @param value the new value
+	 * @return the accumulator
 	 */
-	public void setValue(T value) {
-		store(accumulator.accumulate(optionValue, value));
+	@Override
+	public Accumulator<T> getAccumulator() {
+		return accumulator;
 	}
 
 	/**
-	 * Store.
+	 * Publish.
 	 *
-	 * @param value the value
+	 * @param value      the value
+	 * @param matchCount the match count
 	 */
-	protected void store(T value) {
+	@Override
+	public void publish(T value, int matchCount) {
 		this.optionValue = value;
-		setMatch(true);
+		this.matchCount = matchCount;
 	}
 
 	/**
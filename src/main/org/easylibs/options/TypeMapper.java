@@ -106,4 +106,17 @@ public interface TypeMapper<T> {
 	default Accumulator<T> accumulator() {
 		return Accumulator.identity();
 	}
+
+	/**
+	 * Decorates this mapper with a bounded cache of the values mapped from each
+	 * argument string. Only use for immutable value types.
+	 *
+	 * @param maxEntries the maximum number of cached values
+	 * @return the memoized type mapper
+	 * @throws IllegalArgumentException if max entries is not positive
+	 * @see MemoizedTypeMapper
+	 */
+	default MemoizedTypeMapper<T> memoized(int maxEntries) throws IllegalArgumentException {
+		return new MemoizedTypeMapper<>(this, maxEntries);
+	}
 }
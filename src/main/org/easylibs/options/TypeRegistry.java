@@ -26,13 +26,16 @@ package org.easylibs.options;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A registry for {@link TypeMapper}. {@link TypeMapper} mappings are used to
@@ -41,10 +44,293 @@ import java.util.stream.Stream;
  * performs the neccessary convertion to the mapper type. The mapper will throw
  * checked and unchecked exceptions on any conversion errors.
  * 
+ * <p>
+ * Registries are thread safe and lookups never lock. A registry created with
+ * {@link #child()} inherits all the mappings of its parent, while mappings set
+ * on the child, such as by {@link Options.Builder#mapType}, stay private to it.
+ * Mappers which are automatically created for array, collection and enum types
+ * are cached by the registry which created them, from the mappers it sees for
+ * their component types, and are never inherited by a child. They are created
+ * anew once the registrations change.
+ * </p>
+ * 
+ * <p>
+ * A mapper registered for a class or interface also applies to its subtypes,
+ * when no mapper is registered for the subtype itself. If several supertypes
+ * have mappers, the one with the highest {@link TypeMapper#priority()} wins and
+ * on a tie the nearest supertype. The mapper resolved for each type is cached
+ * until the registrations change.
+ * </p>
+ * 
  * @see #register
  */
 public class TypeRegistry {
 
+	/**
+	 * Maps the elements of a value split by a tokenizer.
+	 *
+	 * @param <T> the array or collection type
+	 */
+	@FunctionalInterface
+	private interface ElementsParser<T> {
+
+		/**
+		 * Parses the elements.
+		 *
+		 * @param value     the value
+		 * @param tokenizer the tokenizer
+		 * @return the array or collection
+		 * @throws Throwable the throwable
+		 */
+		T parse(CharSequence value, ValueTokenizer tokenizer) throws Throwable;
+	}
+
+	/**
+	 * Maps the elements of a value split by a tokenizer into an existing
+	 * collection.
+	 *
+	 * @param <T> the collection type
+	 */
+	@FunctionalInterface
+	private interface ElementsAppender<T> {
+
+		/**
+		 * Adds the elements to the collection.
+		 *
+		 * @param value     the value
+		 * @param tokenizer the tokenizer
+		 * @param target    the collection
+		 * @throws Throwable the throwable
+		 */
+		void append(CharSequence value, ValueTokenizer tokenizer, T target) throws Throwable;
+	}
+
+	/**
+	 * A mapper resolved from the supertypes of a type, or automatically created
+	 * for it, with the generation of registrations it was resolved for.
+	 */
+	private static final class Resolved {
+
+		/** The generation. */
+		final int generation;
+
+		/** The mapper, or null if no supertype has one. */
+		final TypeMapper<?> mapper;
+
+		/**
+		 * Instantiates a new resolved mapper.
+		 *
+		 * @param generation the generation
+		 * @param mapper     the mapper
+		 */
+		Resolved(int generation, TypeMapper<?> mapper) {
+			this.generation = generation;
+			this.mapper = mapper;
+		}
+	}
+
+	/**
+	 * Applies a supertype's mapper to a subtype, checking that mapped values are
+	 * of the subtype.
+	 *
+	 * @param <T> the generic type
+	 */
+	private static class SubtypeMapper<T> implements TypeMapper<T> {
+
+		/** The subtype. */
+		private final Class<T> type;
+
+		/** The supertype's mapper. */
+		private final TypeMapper<? super T> mapper;
+
+		/** The supertype's accumulator, applied to the subtype. */
+		private final Accumulator<T> accumulator;
+
+		/**
+		 * Instantiates a new subtype mapper.
+		 *
+		 * @param type   the subtype
+		 * @param mapper the supertype's mapper
+		 */
+		@SuppressWarnings("unchecked")
+		SubtypeMapper(Class<T> type, TypeMapper<? super T> mapper) {
+			this.type = type;
+			this.mapper = mapper;
+
+			final Accumulator<Object> accumulator = (Accumulator<Object>) mapper.accumulator();
+			this.accumulator = new Accumulator<T>() {
+
+				@Override
+				public T accumulate(T oldValue, T newValue) {
+					return cast(accumulator.accumulate(oldValue, newValue));
+				}
+
+				@Override
+				public Builder<T> begin() {
+					final Builder<Object> builder = accumulator.begin();
+
+					return new Builder<T>() {
+
+						@Override
+						public void append(T value) {
+							builder.append(value);
+						}
+
+						@Override
+						public T finish() {
+							return cast(builder.finish());
+						}
+					};
+				}
+			};
+		}
+
+		/**
+		 * Accumulator.
+		 *
+		 * @return the accumulator
+		 */
+		@Override
+		public Accumulator<T> accumulator() {
+			return accumulator;
+		}
+
+		/**
+		 * Default value.
+		 *
+		 * @return the t
+		 */
+		@Override
+		public T defaultValue() {
+			return cast(mapper.defaultValue());
+		}
+
+		/**
+		 * Casts a value to the subtype.
+		 *
+		 * @param value the value
+		 * @return the t
+		 * @throws ClassCastException if the value is not of the subtype
+		 */
+		@SuppressWarnings("unchecked")
+		private T cast(Object value) throws ClassCastException {
+			if (type.isPrimitive()) {
+				return (T) value;
+			}
+
+			return type.cast(value);
+		}
+
+		/**
+		 * Map from.
+		 *
+		 * @param value the value
+		 * @return the t
+		 * @throws Throwable the throwable
+		 */
+		@Override
+		public T mapFrom(String value) throws Throwable {
+			return cast(mapper.mapFrom(value));
+		}
+
+		/**
+		 * Priority.
+		 *
+		 * @return the int
+		 */
+		@Override
+		public int priority() {
+			return mapper.priority();
+		}
+	}
+
+	/**
+	 * The Class ElementsTypeMapperImpl.
+	 *
+	 * @param <T> the array or collection type
+	 */
+	private static class ElementsTypeMapperImpl<T> implements ElementsTypeMapper<T> {
+
+		/** The parser. */
+		private final ElementsParser<T> parser;
+
+		/** The appender, or null if elements can not be added to a collection. */
+		private final ElementsAppender<T> appender;
+
+		/** The accumulator. */
+		private final Accumulator<T> accumulator;
+
+		/**
+		 * Instantiates a new elements type mapper impl.
+		 *
+		 * @param parser      the parser
+		 * @param accumulator the accumulator
+		 */
+		ElementsTypeMapperImpl(final ElementsParser<T> parser, final Accumulator<T> accumulator) {
+			this(parser, null, accumulator);
+		}
+
+		/**
+		 * Instantiates a new elements type mapper impl, which can also add elements
+		 * to an existing collection.
+		 *
+		 * @param parser      the parser
+		 * @param appender    the appender
+		 * @param accumulator the accumulator
+		 */
+		ElementsTypeMapperImpl(
+				final ElementsParser<T> parser,
+				final ElementsAppender<T> appender,
+				final Accumulator<T> accumulator) {
+			this.parser = parser;
+			this.appender = appender;
+			this.accumulator = accumulator;
+		}
+
+		/**
+		 * Accumulator.
+		 *
+		 * @return the accumulator
+		 */
+		@Override
+		public Accumulator<T> accumulator() {
+			return accumulator;
+		}
+
+		/**
+		 * Map elements.
+		 *
+		 * @param value     the value
+		 * @param tokenizer the tokenizer
+		 * @return the array or collection
+		 * @throws Throwable the throwable
+		 */
+		@Override
+		public T mapElements(CharSequence value, ValueTokenizer tokenizer) throws Throwable {
+			return parser.parse(value, tokenizer);
+		}
+
+		/**
+		 * Map elements into.
+		 *
+		 * @param value     the value
+		 * @param tokenizer the tokenizer
+		 * @param target    the target
+		 * @return true, if added
+		 * @throws Throwable the throwable
+		 */
+		@Override
+		public boolean mapElementsInto(CharSequence value, ValueTokenizer tokenizer, T target) throws Throwable {
+			if (appender == null) {
+				return false;
+			}
+
+			appender.append(value, tokenizer, target);
+
+			return true;
+		}
+	}
+
 	/**
 	 * The Class TypeMapperImpl.
 	 *
@@ -123,11 +409,88 @@ public class TypeRegistry {
 
 	}
 
+	/**
+	 * An index of the registered types by name. Several types may share a name,
+	 * in which case the one indexed first is found.
+	 */
+	private static class NameIndex {
+
+		/** The types by name, each list is immutable and replaced on change. */
+		private final ConcurrentMap<String, List<Class<?>>> types = new ConcurrentHashMap<>();
+
+		/**
+		 * Adds the type under a name.
+		 *
+		 * @param name the name, ignored if null
+		 * @param type the type
+		 */
+		public void add(String name, Class<?> type) {
+			if (name == null) {
+				return;
+			}
+
+			types.compute(name, (n, list) -> {
+				final List<Class<?>> copy = (list == null) ? new ArrayList<>(1) : new ArrayList<>(list);
+				copy.add(type);
+
+				return Collections.unmodifiableList(copy);
+			});
+		}
+
+		/**
+		 * Removes the type from under a name.
+		 *
+		 * @param name the name, ignored if null
+		 * @param type the type
+		 */
+		public void remove(String name, Class<?> type) {
+			if (name == null) {
+				return;
+			}
+
+			types.computeIfPresent(name, (n, list) -> {
+				final List<Class<?>> copy = new ArrayList<>(list);
+				copy.remove(type);
+
+				return copy.isEmpty() ? null : Collections.unmodifiableList(copy);
+			});
+		}
+
+		/**
+		 * Gets the first type indexed under a name.
+		 *
+		 * @param name the name
+		 * @return the type, or null if none
+		 */
+		public Class<?> get(String name) {
+			final List<Class<?>> list = types.get(name);
+
+			return (list == null) ? null : list.get(0);
+		}
+	}
+
+	/**
+	 * Folds the case of a name, so that names which are equal ignoring case fold
+	 * to the same string.
+	 *
+	 * @param name the name
+	 * @return the folded name
+	 */
+	private static String foldCase(String name) {
+		return name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+	}
+
+	/** The generation of all registrations, changed whenever any is set or removed. */
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+
+	/** The number of classes cached by the default {@code Class} mapper. */
+	private static final int DEFAULT_CLASS_CACHE_SIZE = 256;
+
 	/** The Constant GLOBAL_REGISTRY. */
 	private static final TypeRegistry GLOBAL_REGISTRY;
 
 	static {
-		GLOBAL_REGISTRY = new TypeRegistry();
+		GLOBAL_REGISTRY = new TypeRegistry(null);
 		GLOBAL_REGISTRY.registerDefaults();
 	}
 
@@ -143,6 +506,20 @@ public class TypeRegistry {
 		return global().set(type, mapper, accumulator);
 	}
 
+	/**
+	 * Registers a new global mapping, whose values are memoized, see
+	 * {@link #setMemoized(Class, TypeMapper, int)}.
+	 *
+	 * @param <T>        the generic type
+	 * @param type       the type
+	 * @param mapper     the mapper
+	 * @param maxEntries the maximum number of cached values
+	 * @return the registration
+	 */
+	public static <T> Registration registerMemoized(Class<T> type, TypeMapper<T> mapper, int maxEntries) {
+		return global().setMemoized(type, mapper, maxEntries);
+	}
+
 	/**
 	 * Global.
 	 *
@@ -158,96 +535,474 @@ public class TypeRegistry {
 	 * @param <T>           the generic type
 	 * @param componentType the component type
 	 * @param str           the str
+	 * @param tokenizer     the tokenizer
 	 * @param mapper        the mapper
 	 * @return the t
 	 * @throws Throwable the throwable
 	 */
 	@SuppressWarnings("unchecked")
-	private static <T> T parseArray(Class<?> componentType, final String str, TypeMapper<?> mapper)
+	private static <T> T parseArray(Class<?> componentType, final CharSequence str, ValueTokenizer tokenizer,
+			TypeMapper<?> mapper) throws Throwable {
+
+		final Object array = Array.newInstance(componentType, tokenizer.count(str));
+
+		tokenizer.tokenize(str,
+				(i, s, start, end) -> Array.set(array, i, mapper.mapFrom(s.subSequence(start, end).toString())));
+
+		return (T) array;
+	}
+
+	/**
+	 * Parses a {@code double} array, without boxing.
+	 *
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the array
+	 * @throws Throwable the throwable
+	 */
+	private static double[] parseDoubleArray(final CharSequence str, ValueTokenizer tokenizer, DoubleTypeMapper mapper)
 			throws Throwable {
-		final String[] split = str.split(",");
+		final double[] array = new double[tokenizer.count(str)];
 
-		final Object array = Array.newInstance(componentType, split.length);
+		tokenizer.tokenize(str, (i, s, start, end) -> array[i] = mapper.mapToDouble(s, start, end));
 
-		for (int i = 0; i < split.length; i++) {
-			String string = split[i];
+		return array;
+	}
 
-			Object value = mapper.mapFrom(string);
-			Array.set(array, i, value);
-		}
+	/**
+	 * Parses a {@code double} list, without boxing.
+	 *
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the list
+	 * @throws Throwable the throwable
+	 */
+	private static DoubleList parseDoubleList(final CharSequence str, ValueTokenizer tokenizer, DoubleTypeMapper mapper)
+			throws Throwable {
+		final DoubleList list = new DoubleList(tokenizer.count(str));
 
-		return (T) array;
+		tokenizer.tokenize(str, (i, s, start, end) -> list.addDouble(mapper.mapToDouble(s, start, end)));
+
+		return list;
 	}
 
 	/**
-	 * Parses the boolean.
+	 * Parses an enum set. Enum constant names are looked up in the precomputed
+	 * table of an {@link EnumTypeMapper}, unless a custom enum mapper was
+	 * registered.
 	 *
-	 * @param str the str
-	 * @return the boolean
+	 * @param <E>       the enum type
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param enumType  the enum type
+	 * @param mapper    the mapper
+	 * @return the enum set
+	 * @throws Throwable the throwable
 	 */
-	private static Boolean parseBoolean(final String str) {
-		switch (str.toLowerCase()) {
-		case "true":
-		case "1":
-		case "on":
-			return true;
+	private static <E extends Enum<E>> EnumSet<E> parseEnumSet(final CharSequence str, ValueTokenizer tokenizer,
+			Class<E> enumType, TypeMapper<E> mapper) throws Throwable {
+		final EnumSet<E> set = EnumSet.noneOf(enumType);
 
-		case "false":
-		case "0":
-		case "off":
-			return false;
+		addEnumElements(str, tokenizer, mapper, set);
 
-		default:
-			try {
-				return Long.parseLong(str) != 0;
-			} catch (final NumberFormatException e) {
-			}
+		return set;
+	}
 
-			throw new NumberFormatException("invalid boolean value " + str);
+	/**
+	 * Adds the elements of an enum set argument to a collection, see
+	 * {@link #parseEnumSet}.
+	 *
+	 * @param <E>       the enum type
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @param target    the collection
+	 * @throws Throwable the throwable
+	 */
+	private static <E extends Enum<E>> void addEnumElements(final CharSequence str, ValueTokenizer tokenizer,
+			TypeMapper<E> mapper, Collection<? super E> target) throws Throwable {
+
+		if (mapper instanceof EnumTypeMapper) {
+			final EnumTypeMapper<E> enumMapper = (EnumTypeMapper<E>) mapper;
+			tokenizer.tokenize(str, (i, s, start, end) -> target.add(enumMapper.mapFrom(s, start, end)));
+
+		} else {
+			addElements(str, tokenizer, mapper, target);
 		}
 	}
 
+	/**
+	 * Adds the elements of an argument to a collection.
+	 *
+	 * @param <U>       the element type
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the element mapper
+	 * @param target    the collection
+	 * @throws Throwable the throwable
+	 */
+	private static <U> void addElements(final CharSequence str, ValueTokenizer tokenizer, TypeMapper<U> mapper,
+			Collection<? super U> target) throws Throwable {
+
+		tokenizer.tokenize(str,
+				(i, s, start, end) -> target.add(mapper.mapFrom(s.subSequence(start, end).toString())));
+	}
+
+	/**
+	 * Parses an {@code int} array, without boxing.
+	 *
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the array
+	 * @throws Throwable the throwable
+	 */
+	private static int[] parseIntArray(final CharSequence str, ValueTokenizer tokenizer, IntTypeMapper mapper)
+			throws Throwable {
+		final int[] array = new int[tokenizer.count(str)];
+
+		tokenizer.tokenize(str, (i, s, start, end) -> array[i] = mapper.mapToInt(s, start, end));
+
+		return array;
+	}
+
+	/**
+	 * Parses an {@code int} list, without boxing.
+	 *
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the list
+	 * @throws Throwable the throwable
+	 */
+	private static IntList parseIntList(final CharSequence str, ValueTokenizer tokenizer, IntTypeMapper mapper)
+			throws Throwable {
+		final IntList list = new IntList(tokenizer.count(str));
+
+		tokenizer.tokenize(str, (i, s, start, end) -> list.addInt(mapper.mapToInt(s, start, end)));
+
+		return list;
+	}
+
 	/**
 	 * Parses the list.
 	 *
-	 * @param <U>    the generic type
-	 * @param str    the str
-	 * @param mapper the mapper
+	 * @param <U>       the element type
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
 	 * @return the list
 	 * @throws Throwable the throwable
 	 */
-	private static <U> List<U> parseList(final String str, TypeMapper<U> mapper) throws Throwable {
+	private static <U> List<U> parseList(final CharSequence str, ValueTokenizer tokenizer, TypeMapper<U> mapper)
+			throws Throwable {
 
-		ArrayList<U> col = new ArrayList<>();
-		String[] array = str.split(",");
+		final ArrayList<U> col = new ArrayList<>(tokenizer.count(str));
 
-		for (String a : array) {
-			col.add(mapper.mapFrom(a));
-		}
+		addElements(str, tokenizer, mapper, col);
 
 		return col;
 	}
 
+	/**
+	 * Parses a {@code long} array, without boxing.
+	 *
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the array
+	 * @throws Throwable the throwable
+	 */
+	private static long[] parseLongArray(final CharSequence str, ValueTokenizer tokenizer, LongTypeMapper mapper)
+			throws Throwable {
+		final long[] array = new long[tokenizer.count(str)];
+
+		tokenizer.tokenize(str, (i, s, start, end) -> array[i] = mapper.mapToLong(s, start, end));
+
+		return array;
+	}
+
+	/**
+	 * Parses a {@code long} list, without boxing.
+	 *
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the list
+	 * @throws Throwable the throwable
+	 */
+	private static LongList parseLongList(final CharSequence str, ValueTokenizer tokenizer, LongTypeMapper mapper)
+			throws Throwable {
+		final LongList list = new LongList(tokenizer.count(str));
+
+		tokenizer.tokenize(str, (i, s, start, end) -> list.addLong(mapper.mapToLong(s, start, end)));
+
+		return list;
+	}
+
 	/**
 	 * Parses the set.
 	 *
-	 * @param <U>    the generic type
-	 * @param str    the str
-	 * @param mapper the mapper
-	 * @return the sets the
+	 * @param <U>       the element type
+	 * @param str       the str
+	 * @param tokenizer the tokenizer
+	 * @param mapper    the mapper
+	 * @return the set
 	 * @throws Throwable the throwable
 	 */
-	private static <U> Set<U> parseSet(final String str, TypeMapper<U> mapper) throws Throwable {
-		return new HashSet<>(parseList(str, mapper));
+	private static <U> Set<U> parseSet(final CharSequence str, ValueTokenizer tokenizer, TypeMapper<U> mapper)
+			throws Throwable {
+		final Set<U> set = new HashSet<>();
+
+		addElements(str, tokenizer, mapper, set);
+
+		return set;
 	}
 
 	/** The registry. */
-	private final Map<GenericType, TypeMapper<?>> registry = new HashMap<>();
+	private final ConcurrentMap<GenericType, TypeMapper<?>> registry = new ConcurrentHashMap<>();
+
+	/** The number of keys in the registry for each type. */
+	private final ConcurrentMap<Class<?>, Integer> typeCounts = new ConcurrentHashMap<>();
+
+	/** The registered types by canonical and binary name. */
+	private final NameIndex byName = new NameIndex();
+
+	/** The registered types by simple name. */
+	private final NameIndex bySimpleName = new NameIndex();
+
+	/** The registered types by case folded simple name. */
+	private final NameIndex byFoldedName = new NameIndex();
+
+	/**
+	 * The mappers automatically created by this registry. Like the registered
+	 * mappers, they hold their types strongly until this registry is dropped.
+	 */
+	private final ConcurrentMap<GenericType, Resolved> autoCreated = new ConcurrentHashMap<>();
+
+	/** The parent, or null for the global registry. */
+	private final TypeRegistry parent;
+
+	/** The mappers resolved from the supertypes of each type. */
+	private final ClassValue<Resolved> resolved = new ClassValue<Resolved>() {
+
+		@Override
+		protected Resolved computeValue(Class<?> type) {
+			final int generation = GENERATION.get();
+
+			return new Resolved(generation, resolveFromSupertypes(type));
+		}
+	};
 
 	/**
 	 * Instantiates a new options registry.
+	 *
+	 * @param parent the parent, or null
+	 */
+	private TypeRegistry(TypeRegistry parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Caches an automatically created mapper. If another thread cached a mapper
+	 * for the same type first, under the current registrations, that mapper is
+	 * used instead, so that all callers share the same instance. The type is
+	 * counted when its key is first cached, so that it can be looked up by name
+	 * like a registered type.
+	 *
+	 * @param <T>        the generic type
+	 * @param key        the key
+	 * @param generation the generation of registrations the mapper was created
+	 *                   from
+	 * @param mapper     the mapper
+	 * @return the cached mapper
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> TypeMapper<T> cache(GenericType key, int generation, TypeMapper<T> mapper) {
+		final Resolved created = new Resolved(generation, mapper);
+		final Resolved cached = autoCreated.compute(key, (k, previous) -> {
+			if (previous == null) {
+				countType(k.getType(), 1);
+			}
+
+			return ((previous != null) && (previous.generation == GENERATION.get())) ? previous : created;
+		});
+
+		return (TypeMapper<T>) cached.mapper;
+	}
+
+	/**
+	 * Gets a mapper automatically created by this registry, if it was created
+	 * under the current registrations.
+	 *
+	 * @param key the key
+	 * @return the type mapper, or null if none
+	 */
+	private TypeMapper<?> getAutoCreated(GenericType key) {
+		final Resolved cached = autoCreated.get(key);
+
+		return ((cached != null) && (cached.generation == GENERATION.get())) ? cached.mapper : null;
+	}
+
+	/**
+	 * Creates a child registry, which inherits all the mappings of this registry.
+	 * Mappings set on the child override the inherited ones, without affecting
+	 * this registry.
+	 *
+	 * @return the child registry
+	 */
+	public TypeRegistry child() {
+		return new TypeRegistry(this);
+	}
+
+	/**
+	 * Puts a mapping into this registry.
+	 *
+	 * @param key    the key
+	 * @param mapper the mapper
+	 * @return the registration, which removes the mapping
+	 */
+	private Registration put(GenericType key, TypeMapper<?> mapper) {
+		registry.compute(key, (k, previous) -> {
+			if (previous == null) {
+				countType(k.getType(), 1);
+			}
+
+			return mapper;
+		});
+		GENERATION.incrementAndGet();
+
+		return () -> {
+			final boolean[] removed = new boolean[1];
+			registry.computeIfPresent(key, (k, current) -> {
+				if (current != mapper) {
+					return current;
+				}
+
+				countType(k.getType(), -1);
+				removed[0] = true;
+
+				return null;
+			});
+
+			if (removed[0]) {
+				GENERATION.incrementAndGet();
+			}
+		};
+	}
+
+	/**
+	 * Counts a key of a type added to or removed from the registry, or first
+	 * cached as automatically created. The names of the type are indexed while it
+	 * has at least one key. It is called while the key is computed, so that the
+	 * count and the name indexes change atomically with the mapping.
+	 *
+	 * @param type  the type
+	 * @param delta 1 for an added key, -1 for a removed one
+	 */
+	private void countType(Class<?> type, int delta) {
+		typeCounts.compute(type, (t, count) -> {
+			final int n = ((count == null) ? 0 : count) + delta;
+
+			if ((count == null) && (n > 0)) {
+				byName.add(t.getCanonicalName(), t);
+				if (!t.getName().equals(t.getCanonicalName())) {
+					byName.add(t.getName(), t);
+				}
+				bySimpleName.add(t.getSimpleName(), t);
+				byFoldedName.add(foldCase(t.getSimpleName()), t);
+
+			} else if ((count != null) && (n <= 0)) {
+				byName.remove(t.getCanonicalName(), t);
+				if (!t.getName().equals(t.getCanonicalName())) {
+					byName.remove(t.getName(), t);
+				}
+				bySimpleName.remove(t.getSimpleName(), t);
+				byFoldedName.remove(foldCase(t.getSimpleName()), t);
+			}
+
+			return (n <= 0) ? null : n;
+		});
+	}
+
+	/**
+	 * Gets the mapper of a supertype of the type, see
+	 * {@link #resolveFromSupertypes(Class)}. The result is cached per type until
+	 * the registrations change.
+	 *
+	 * @param <T>  the generic type
+	 * @param type the type
+	 * @return the type mapper, or null if none
 	 */
-	private TypeRegistry() {
+	@SuppressWarnings("unchecked")
+	private <T> TypeMapper<T> getFromSupertypes(Class<T> type) {
+		Resolved r = resolved.get(type);
+		if (r.generation != GENERATION.get()) {
+			resolved.remove(type);
+			r = resolved.get(type);
+		}
+
+		return (TypeMapper<T>) r.mapper;
+	}
+
+	/**
+	 * Resolves the mapper of a type from the mappers registered for its
+	 * superclasses and interfaces, other than {@code Object}. Supertypes are
+	 * visited nearest first and the mapper with the highest priority wins.
+	 *
+	 * @param type the type
+	 * @return the type mapper, or null if none
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private TypeMapper<?> resolveFromSupertypes(Class<?> type) {
+		final List<Class<?>> supertypes = new ArrayList<>();
+		final Set<Class<?>> visited = new HashSet<>();
+		supertypes.add(type);
+
+		TypeMapper<?> best = null;
+
+		for (int i = 0; i < supertypes.size(); i++) {
+			final Class<?> t = supertypes.get(i);
+
+			if (i > 0) {
+				final TypeMapper<?> candidate = lookup(GenericType.of(t));
+				if ((candidate != null) && ((best == null) || (candidate.priority() > best.priority()))) {
+					best = candidate;
+				}
+			}
+
+			final Class<?> superclass = t.getSuperclass();
+			if ((superclass != null) && (superclass != Object.class) && visited.add(superclass)) {
+				supertypes.add(superclass);
+			}
+
+			for (Class<?> in : t.getInterfaces()) {
+				if (visited.add(in)) {
+					supertypes.add(in);
+				}
+			}
+		}
+
+		return (best == null) ? null : new SubtypeMapper(type, best);
+	}
+
+	/**
+	 * Looks up a registered mapper in this registry and then its parents.
+	 *
+	 * @param key the key
+	 * @return the type mapper, or null if not found
+	 */
+	private TypeMapper<?> lookup(GenericType key) {
+		for (TypeRegistry r = this; r != null; r = r.parent) {
+			final TypeMapper<?> mapper = r.registry.get(key);
+			if (mapper != null) {
+				return mapper;
+			}
+		}
+
+		return null;
 	}
 
 	/**
@@ -257,9 +1012,8 @@ public class TypeRegistry {
 	 * @param type the type
 	 * @return the type mapper
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> TypeMapper<T> get(final Class<T> type) {
-		return (TypeMapper<T>) registry.get(GenericType.of(type));
+		return get(type, Optional.empty());
 	}
 
 	/**
@@ -272,12 +1026,17 @@ public class TypeRegistry {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> TypeMapper<T> get(final Class<T> type, Optional<Class<?>> genericType) {
-		return (TypeMapper<T>) registry.get(GenericType.of(type, genericType));
+		final GenericType key = GenericType.of(type, genericType);
+		final TypeMapper<?> mapper = lookup(key);
+
+		return (TypeMapper<T>) ((mapper != null) ? mapper : getAutoCreated(key));
 	}
 
 	/**
 	 * <p>
-	 * If no mapper is defined for a type, this method will try one of its many
+	 * If no mapper is defined for a type, this method first looks for a mapper
+	 * registered for one of the type's superclasses or interfaces, picking the
+	 * one with the highest priority. Otherwise it will try one of its many
 	 * algorithms to come up with a mapper that will work with the requested type.
 	 * For example, all collection, array and enum types are automatically created,
 	 * if no user defined custom mapping exists. Mappings are done recursively.
@@ -300,6 +1059,10 @@ public class TypeRegistry {
 	public <T> TypeMapper<T> getOrElseAutoCreate(final Class<T> type, Optional<Class<?>> genericType) {
 
 		TypeMapper<T> mapper = get(type, genericType);
+		if ((mapper == null) && !genericType.isPresent()) {
+			mapper = getFromSupertypes(type);
+		}
+
 		if (mapper == null) {
 			mapper = tryAutoCreate(type, genericType);
 		}
@@ -310,9 +1073,7 @@ public class TypeRegistry {
 	public <T> Registration set(final Class<T> type, final TypeMapper<T> mapper) {
 		final GenericType gt = GenericType.of(type);
 
-		registry.put(GenericType.of(type), mapper);
-
-		return () -> registry.remove(gt);
+		return put(gt, mapper);
 	}
 
 	/**
@@ -326,7 +1087,7 @@ public class TypeRegistry {
 	public <T> Registration set(final Class<T> type, final TypeMapper<T> mapper, T defaultValue) {
 
 		final GenericType gt = GenericType.of(type);
-		registry.put(GenericType.of(type), new TypeMapper<T>() {
+		final TypeMapper<T> withDefault = new TypeMapper<T>() {
 
 			@Override
 			public T mapFrom(String value) throws Throwable {
@@ -338,28 +1099,47 @@ public class TypeRegistry {
 				return defaultValue;
 			}
 
-		});
+		};
 
-		return () -> registry.remove(gt);
+		return put(gt, withDefault);
 	}
 
+	/**
+	 * Looks up a registered or automatically created type, such as an enum used
+	 * as an option type, by its canonical, binary or simple name. Types of this
+	 * registry are found before those of its parent.
+	 *
+	 * @param name the name
+	 * @return the type, or null if none
+	 */
 	public Class<?> lookupType(String name) {
-		return registry.entrySet()
-				.stream()
-				.filter(e -> e.getKey().getType().equals(name))
-				.map(e -> e.getKey().getType())
-				.findAny()
-				.orElse(null);
+		Class<?> type = byName.get(name);
+		if (type == null) {
+			type = bySimpleName.get(name);
+		}
+
+		if ((type == null) && (parent != null)) {
+			type = parent.lookupType(name);
+		}
+
+		return type;
 	}
 
+	/**
+	 * Looks up a registered or automatically created type by its simple name,
+	 * ignoring case. Types of this registry are found before those of its
+	 * parent.
+	 *
+	 * @param name the name
+	 * @return the type, or null if none
+	 */
 	public Class<?> lookupTypeIgnoreCase(String name) {
+		final Class<?> type = byFoldedName.get(foldCase(name));
+		if ((type == null) && (parent != null)) {
+			return parent.lookupTypeIgnoreCase(name);
+		}
 
-		return registry.entrySet()
-				.stream()
-				.filter(e -> e.getKey().getType().getSimpleName().equalsIgnoreCase(name))
-				.map(e -> e.getKey().getType())
-				.findAny()
-				.orElse(null);
+		return type;
 	}
 
 	/**
@@ -378,9 +1158,26 @@ public class TypeRegistry {
 
 		final GenericType gt = GenericType.of(type);
 
-		registry.put(gt, new TypeMapperImpl<>(mapper, accumulator));
+		final TypeMapper<T> withAccumulator = new TypeMapperImpl<>(mapper, accumulator);
+
+		return put(gt, withAccumulator);
+	}
 
-		return () -> registry.remove(gt);
+	/**
+	 * Register a new mapping, whose values are cached in a bounded cache keyed by
+	 * the argument string. Only use for immutable value types, such as
+	 * {@code Pattern}, {@code InetAddress} or {@code ZoneId}. The cache and its
+	 * counters can be read back with {@link #get(Class)}.
+	 *
+	 * @param <T>        the generic type
+	 * @param type       the type
+	 * @param mapper     the mapper
+	 * @param maxEntries the maximum number of cached values
+	 * @return the registration
+	 * @see TypeMapper#memoized(int)
+	 */
+	public <T> Registration setMemoized(final Class<T> type, final TypeMapper<T> mapper, int maxEntries) {
+		return set(type, mapper.memoized(maxEntries));
 	}
 
 	/**
@@ -388,25 +1185,64 @@ public class TypeRegistry {
 	 */
 	private void registerDefaults() {
 
+		final IntTypeMapper intMapper = new IntTypeMapper() {
+
+			@Override
+			public int mapToInt(CharSequence value) {
+				return CharParsers.parseInt(value);
+			}
+
+			@Override
+			public int mapToInt(CharSequence value, int start, int end) {
+				return CharParsers.parseInt(value, start, end);
+			}
+		};
+
+		final LongTypeMapper longMapper = new LongTypeMapper() {
+
+			@Override
+			public long mapToLong(CharSequence value) {
+				return CharParsers.parseLong(value);
+			}
+
+			@Override
+			public long mapToLong(CharSequence value, int start, int end) {
+				return CharParsers.parseLong(value, start, end);
+			}
+		};
+
+		final DoubleTypeMapper doubleMapper = new DoubleTypeMapper() {
+
+			@Override
+			public double mapToDouble(CharSequence value) {
+				return CharParsers.parseDouble(value);
+			}
+
+			@Override
+			public double mapToDouble(CharSequence value, int start, int end) {
+				return CharParsers.parseDouble(value, start, end);
+			}
+		};
+		final BooleanTypeMapper booleanMapper = CharParsers::parseBoolean;
+
 		register(Byte.class, Byte::parseByte);
 		register(Short.class, Short::parseShort);
-		register(Integer.class, Integer::parseInt);
-		register(Long.class, Long::parseLong);
+		register(Integer.class, intMapper);
+		register(Long.class, longMapper);
 		register(String.class, String::valueOf);
-		set(Boolean.class, TypeRegistry::parseBoolean, true);
-		register(Integer.class, Integer::parseInt);
+		register(Boolean.class, booleanMapper);
 		register(Float.class, Float::parseFloat);
-		register(Double.class, Double::parseDouble);
+		register(Double.class, doubleMapper);
 
 		register(byte.class, Byte::parseByte);
 		register(short.class, Short::parseShort);
-		register(int.class, Integer::parseInt);
-		register(long.class, Long::parseLong);
-		set(boolean.class, TypeRegistry::parseBoolean, true);
+		register(int.class, intMapper);
+		register(long.class, longMapper);
+		register(boolean.class, booleanMapper);
 		register(float.class, Float::parseFloat);
-		register(double.class, Double::parseDouble);
+		register(double.class, doubleMapper);
 
-		register(Class.class, Class::forName);
+		registerMemoized(Class.class, Class::forName, DEFAULT_CLASS_CACHE_SIZE);
 
 	}
 
@@ -420,17 +1256,13 @@ public class TypeRegistry {
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private <T> TypeMapper<T> tryAutoCreate(Class<T> type, Optional<Class<?>> genericType) {
+		final int generation = GENERATION.get();
 
 		if (type.isEnum()) {
 
-			final TypeMapper mapper = name -> Stream.of((Enum[]) type.getEnumConstants())
-					.filter(c -> c.name().equalsIgnoreCase(name))
-					.findFirst()
-					.orElseGet(() -> Enum.valueOf((Class) type, name));
-
-			registry.put(GenericType.of(type, genericType), mapper);
+			final TypeMapper mapper = EnumTypeMapper.of((Class) type);
 
-			return mapper;
+			return cache(GenericType.of(type, genericType), generation, mapper);
 		}
 
 		if (type.isArray()) {
@@ -439,13 +1271,64 @@ public class TypeRegistry {
 				return null;
 			}
 
-			final TypeMapper<T> mapper = new TypeMapperImpl<T>(
-					s -> (T) parseArray(type.getComponentType(), s, componentMapper),
-					Accumulator.array());
+			final ElementsParser<T> parser;
+			if ((type == int[].class) && (componentMapper instanceof IntTypeMapper)) {
+				parser = (s, t) -> (T) parseIntArray(s, t, (IntTypeMapper) componentMapper);
 
-			registry.put(GenericType.of(type, genericType), mapper);
+			} else if ((type == long[].class) && (componentMapper instanceof LongTypeMapper)) {
+				parser = (s, t) -> (T) parseLongArray(s, t, (LongTypeMapper) componentMapper);
 
-			return mapper;
+			} else if ((type == double[].class) && (componentMapper instanceof DoubleTypeMapper)) {
+				parser = (s, t) -> (T) parseDoubleArray(s, t, (DoubleTypeMapper) componentMapper);
+
+			} else {
+				parser = (s, t) -> (T) parseArray(type.getComponentType(), s, t, componentMapper);
+			}
+
+			final TypeMapper<T> mapper = new ElementsTypeMapperImpl<>(parser, Accumulator.array());
+
+			return cache(GenericType.of(type, genericType), generation, mapper);
+		}
+
+		if ((type == IntList.class) || (type == LongList.class) || (type == DoubleList.class)) {
+
+			final ElementsParser<T> parser;
+			if (type == IntList.class) {
+				final TypeMapper<?> componentMapper = getOrElseAutoCreate(int.class, Optional.empty());
+				parser = (componentMapper instanceof IntTypeMapper)
+						? (s, t) -> (T) parseIntList(s, t, (IntTypeMapper) componentMapper)
+						: (s, t) -> (T) parseIntList(s, t, v -> (Integer) componentMapper.mapFrom(v.toString()));
+
+			} else if (type == LongList.class) {
+				final TypeMapper<?> componentMapper = getOrElseAutoCreate(long.class, Optional.empty());
+				parser = (componentMapper instanceof LongTypeMapper)
+						? (s, t) -> (T) parseLongList(s, t, (LongTypeMapper) componentMapper)
+						: (s, t) -> (T) parseLongList(s, t, v -> (Long) componentMapper.mapFrom(v.toString()));
+
+			} else {
+				final TypeMapper<?> componentMapper = getOrElseAutoCreate(double.class, Optional.empty());
+				parser = (componentMapper instanceof DoubleTypeMapper)
+						? (s, t) -> (T) parseDoubleList(s, t, (DoubleTypeMapper) componentMapper)
+						: (s, t) -> (T) parseDoubleList(s, t, v -> (Double) componentMapper.mapFrom(v.toString()));
+			}
+
+			final TypeMapper<T> mapper = new ElementsTypeMapperImpl(parser, Accumulator.collections());
+
+			return cache(GenericType.of(type, genericType), generation, mapper);
+		}
+
+		if (genericType.isPresent() && genericType.get().isEnum()
+				&& Set.class.isAssignableFrom(type) && type.isAssignableFrom(EnumSet.class)) {
+
+			final Class enumType = genericType.get();
+			final TypeMapper componentMapper = getOrElseAutoCreate(enumType, Optional.empty());
+
+			final TypeMapper<T> mapper = new ElementsTypeMapperImpl(
+					(s, t) -> (T) parseEnumSet(s, t, enumType, componentMapper),
+					(s, t, c) -> addEnumElements(s, t, componentMapper, (Collection) c),
+					Accumulator.collections());
+
+			return cache(GenericType.of(type, genericType), generation, mapper);
 		}
 
 		if ((Collection.class.isAssignableFrom(type) || List.class.isAssignableFrom(type))
@@ -453,26 +1336,24 @@ public class TypeRegistry {
 
 			final TypeMapper<?> componentMapper = getOrElseAutoCreate(genericType.get(), Optional.empty());
 
-			final TypeMapper<T> mapper = new TypeMapperImpl(
-					s -> (T) parseList(s, componentMapper),
+			final TypeMapper<T> mapper = new ElementsTypeMapperImpl(
+					(s, t) -> (T) parseList(s, t, componentMapper),
+					(s, t, c) -> addElements(s, t, componentMapper, (Collection) c),
 					Accumulator.collections());
 
-			registry.put(GenericType.of(type, genericType), mapper);
-
-			return mapper;
+			return cache(GenericType.of(type, genericType), generation, mapper);
 		}
 
 		if ((Set.class.isAssignableFrom(type)) && genericType.isPresent()) {
 
 			final TypeMapper<?> componentMapper = getOrElseAutoCreate(genericType.get(), Optional.empty());
 
-			final TypeMapper<T> mapper = new TypeMapperImpl(
-					s -> (T) parseSet(s, componentMapper),
+			final TypeMapper<T> mapper = new ElementsTypeMapperImpl(
+					(s, t) -> (T) parseSet(s, t, componentMapper),
+					(s, t, c) -> addElements(s, t, componentMapper, (Collection) c),
 					Accumulator.collections());
 
-			registry.put(GenericType.of(type, genericType), mapper);
-
-			return mapper;
+			return cache(GenericType.of(type, genericType), generation, mapper);
 		}
 
 		return null;
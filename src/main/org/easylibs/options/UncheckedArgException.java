@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * Wraps an {@link InvalidArgException} with an unchecked exception. Thrown when
+ * an option argument, whose mapping was deferred by
+ * {@link CompiledParser#parseLazy(String[])}, could not be mapped when its value
+ * was read.
+ */
+public class UncheckedArgException extends RuntimeException {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 5296716453069245031L;
+
+	/**
+	 * Instantiates a new unchecked arg exception.
+	 *
+	 * @param cause the cause
+	 */
+	public UncheckedArgException(InvalidArgException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	/**
+	 * Gets the cause.
+	 *
+	 * @return the invalid arg exception
+	 */
+	@Override
+	public InvalidArgException getCause() {
+		return (InvalidArgException) super.getCause();
+	}
+}
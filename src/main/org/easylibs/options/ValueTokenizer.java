@@ -0,0 +1,424 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Sly Technologies Inc.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.easylibs.options;
+
+/**
+ * Splits an option argument into the elements of an array or collection
+ * option, such as {@code --ids=1,2,3}. A tokenizer is configured with a
+ * delimiter and optional quote and escape characters and whitespace trimming,
+ * and is immutable once built, so it is compiled once and shared by all
+ * matches of an option.
+ * 
+ * <p>
+ * Elements are passed to an {@link ElementConsumer} as ranges of the argument,
+ * without creating intermediate strings or arrays. Only elements which contain
+ * quote or escape characters are first unescaped into a reusable buffer.
+ * </p>
+ * 
+ * <H2>Example</H2>
+ * 
+ * <code>
+ * <pre>
+ * Option&lt;String[]&gt; names = Option.of("names", String[].class)
+ *     .splitWith(ValueTokenizer.builder()
+ *         .delimiter(';')
+ *         .quote('"')
+ *         .escape('\\')
+ *         .trim(true)
+ *         .build());
+ * </pre>
+ * </code>
+ * 
+ * @see Option#splitWith(ValueTokenizer)
+ */
+public final class ValueTokenizer {
+
+	/**
+	 * The builder.
+	 */
+	public static final class Builder {
+
+		/** The delimiter. */
+		private char delimiter = ',';
+
+		/** The quote, or NONE. */
+		private int quote = NONE;
+
+		/** The escape, or NONE. */
+		private int escape = NONE;
+
+		/** The trim flag. */
+		private boolean trim;
+
+		/** The keep trailing empty flag. */
+		private boolean keepTrailingEmpty;
+
+		/**
+		 * Instantiates a new builder.
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Builds the tokenizer.
+		 *
+		 * @return the value tokenizer
+		 * @throws IllegalArgumentException if the delimiter, quote and escape
+		 *                                  characters are not distinct
+		 */
+		public ValueTokenizer build() throws IllegalArgumentException {
+			if ((quote == delimiter) || (escape == delimiter) || ((quote != NONE) && (quote == escape))) {
+				throw new IllegalArgumentException("delimiter, quote and escape characters must be distinct");
+			}
+
+			return new ValueTokenizer(delimiter, quote, escape, trim, keepTrailingEmpty);
+		}
+
+		/**
+		 * Sets the delimiter, by default a comma.
+		 *
+		 * @param delimiter the delimiter
+		 * @return the builder
+		 */
+		public Builder delimiter(char delimiter) {
+			this.delimiter = delimiter;
+			return this;
+		}
+
+		/**
+		 * Sets the escape character. An escaped character is always taken literally.
+		 * By default there is no escape character.
+		 *
+		 * @param escape the escape
+		 * @return the builder
+		 */
+		public Builder escape(char escape) {
+			this.escape = escape;
+			return this;
+		}
+
+		/**
+		 * Keeps empty trailing elements. By default they are dropped, as with
+		 * {@link String#split(String)}.
+		 *
+		 * @param keepTrailingEmpty true to keep empty trailing elements
+		 * @return the builder
+		 */
+		public Builder keepTrailingEmpty(boolean keepTrailingEmpty) {
+			this.keepTrailingEmpty = keepTrailingEmpty;
+			return this;
+		}
+
+		/**
+		 * Sets the quote character. Delimiters inside quotes are part of the
+		 * element and the quotes are removed. By default there is no quote
+		 * character.
+		 *
+		 * @param quote the quote
+		 * @return the builder
+		 */
+		public Builder quote(char quote) {
+			this.quote = quote;
+			return this;
+		}
+
+		/**
+		 * Trims unquoted leading and trailing whitespace from each element.
+		 *
+		 * @param trim true to trim
+		 * @return the builder
+		 */
+		public Builder trim(boolean trim) {
+			this.trim = trim;
+			return this;
+		}
+	}
+
+	/**
+	 * Receives each element of a tokenized value.
+	 */
+	@FunctionalInterface
+	public interface ElementConsumer {
+
+		/**
+		 * Accepts an element. The chars are only valid for the duration of the
+		 * call.
+		 *
+		 * @param index the element index
+		 * @param chars the chars
+		 * @param start the start of the element, inclusive
+		 * @param end   the end of the element, exclusive
+		 * @throws Throwable if the element could not be mapped
+		 */
+		void accept(int index, CharSequence chars, int start, int end) throws Throwable;
+	}
+
+	/** No quote or escape character. */
+	private static final int NONE = -1;
+
+	/**
+	 * The default tokenizer, splits on commas without quotes, escapes or
+	 * trimming.
+	 */
+	public static final ValueTokenizer COMMA = builder().build();
+
+	/**
+	 * Creates a new builder.
+	 *
+	 * @return the builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/** The delimiter. */
+	private final char delimiter;
+
+	/** The quote, or NONE. */
+	private final int quote;
+
+	/** The escape, or NONE. */
+	private final int escape;
+
+	/** The trim flag. */
+	private final boolean trim;
+
+	/** The keep trailing empty flag. */
+	private final boolean keepTrailingEmpty;
+
+	/**
+	 * Instantiates a new value tokenizer.
+	 *
+	 * @param delimiter         the delimiter
+	 * @param quote             the quote
+	 * @param escape            the escape
+	 * @param trim              the trim
+	 * @param keepTrailingEmpty the keep trailing empty
+	 */
+	private ValueTokenizer(char delimiter, int quote, int escape, boolean trim, boolean keepTrailingEmpty) {
+		this.delimiter = delimiter;
+		this.quote = quote;
+		this.escape = escape;
+		this.trim = trim;
+		this.keepTrailingEmpty = keepTrailingEmpty;
+	}
+
+	/**
+	 * Counts the elements of the value, without unescaping them.
+	 *
+	 * @param value the value
+	 * @return the count
+	 */
+	public int count(CharSequence value) {
+		try {
+			return scan(value, null);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Scans the elements of the value.
+	 *
+	 * @param value  the value
+	 * @param action the action, or null to only count the elements
+	 * @return the count
+	 * @throws Throwable the throwable thrown by the action
+	 */
+	private int scan(CharSequence value, ElementConsumer action) throws Throwable {
+		final int length = value.length();
+		if (length == 0) {
+			if (action != null) {
+				action.accept(0, value, 0, 0);
+			}
+
+			return 1;
+		}
+
+		StringBuilder buffer = null;
+		int count = 0;
+		int pendingEmpty = 0;
+		int i = 0;
+
+		while (true) {
+			final int start = i;
+			boolean plain = true;
+			boolean quoted = false;
+
+			while (i < length) {
+				final char c = value.charAt(i);
+
+				if ((c == escape) && ((i + 1) < length)) {
+					plain = false;
+					i += 2;
+					continue;
+				}
+
+				if (c == quote) {
+					plain = false;
+					quoted = !quoted;
+
+				} else if ((c == delimiter) && !quoted) {
+					break;
+				}
+
+				i++;
+			}
+
+			final int end = i;
+
+			CharSequence chars = value;
+			int from = start;
+			int to = end;
+
+			if (plain) {
+				if (trim) {
+					while ((from < to) && Character.isWhitespace(value.charAt(from))) {
+						from++;
+					}
+
+					while ((to > from) && Character.isWhitespace(value.charAt(to - 1))) {
+						to--;
+					}
+				}
+
+			} else if (action != null) {
+				buffer = unescape(value, start, end, buffer);
+				chars = buffer;
+				from = 0;
+				to = buffer.length();
+			}
+
+			if (plain && (from == to) && !keepTrailingEmpty) {
+				pendingEmpty++;
+
+			} else {
+				for (; pendingEmpty > 0; pendingEmpty--, count++) {
+					if (action != null) {
+						action.accept(count, value, start, start);
+					}
+				}
+
+				if (action != null) {
+					action.accept(count, chars, from, to);
+				}
+
+				count++;
+			}
+
+			if (end >= length) {
+				return count;
+			}
+
+			i = end + 1;
+		}
+	}
+
+	/**
+	 * Tokenizes the value, passing each element to the action in order.
+	 *
+	 * @param value  the value
+	 * @param action the action
+	 * @return the number of elements
+	 * @throws Throwable the throwable thrown by the action
+	 */
+	public int tokenize(CharSequence value, ElementConsumer action) throws Throwable {
+		return scan(value, action);
+	}
+
+	/**
+	 * To string.
+	 *
+	 * @return the string
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder("ValueTokenizer [delimiter=").append(delimiter);
+
+		if (quote != NONE) {
+			b.append(", quote=").append((char) quote);
+		}
+
+		if (escape != NONE) {
+			b.append(", escape=").append((char) escape);
+		}
+
+		return b.append(", trim=").append(trim)
+				.append(", keepTrailingEmpty=").append(keepTrailingEmpty)
+				.append("]")
+				.toString();
+	}
+
+	/**
+	 * Unescapes an element which contains quotes or escapes.
+	 *
+	 * @param value  the value
+	 * @param start  the start of the element
+	 * @param end    the end of the element
+	 * @param buffer the buffer to reuse, or null
+	 * @return the buffer holding the element
+	 */
+	private StringBuilder unescape(CharSequence value, int start, int end, StringBuilder buffer) {
+		if (buffer == null) {
+			buffer = new StringBuilder(end - start);
+		} else {
+			buffer.setLength(0);
+		}
+
+		/* Length of the element which is quoted or escaped and never trimmed */
+		int literal = 0;
+		boolean quoted = false;
+
+		for (int i = start; i < end; i++) {
+			final char c = value.charAt(i);
+
+			if ((c == escape) && ((i + 1) < end)) {
+				buffer.append(value.charAt(++i));
+				literal = buffer.length();
+
+			} else if (c == quote) {
+				quoted = !quoted;
+				literal = buffer.length();
+
+			} else if (quoted) {
+				buffer.append(c);
+				literal = buffer.length();
+
+			} else if (!trim || (buffer.length() != 0) || !Character.isWhitespace(c)) {
+				buffer.append(c);
+			}
+		}
+
+		if (trim) {
+			int length = buffer.length();
+			while ((length > literal) && Character.isWhitespace(buffer.charAt(length - 1))) {
+				length--;
+			}
+
+			buffer.setLength(length);
+		}
+
+		return buffer;
+	}
+}
@@ -0,0 +1,99 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestAccumulator {
+
+	private enum Level {
+		LOW, MID, HIGH
+	}
+
+	@Test
+	public void test_arrayRepeatedAppends() {
+		final Accumulator.Builder<int[]> builder = Accumulator.<int[]> array().begin();
+
+		final int[] expected = new int[1000];
+		for (int i = 0; i < 500; i++) {
+			builder.append(new int[] { 2 * i, 2 * i + 1 });
+			expected[2 * i] = 2 * i;
+			expected[2 * i + 1] = 2 * i + 1;
+		}
+
+		assertArrayEquals(expected, builder.finish());
+	}
+
+	@Test
+	public void test_arrayNullAndSingleAppends() {
+		final Accumulator.Builder<String[]> empty = Accumulator.<String[]> array().begin();
+		empty.append(null);
+		assertNull(empty.finish());
+
+		final String[] only = { "a", "b" };
+		final Accumulator.Builder<String[]> single = Accumulator.<String[]> array().begin();
+		single.append(null);
+		single.append(only);
+		single.append(null);
+		assertSame(only, single.finish());
+
+		final Accumulator.Builder<String[]> trimmed = Accumulator.<String[]> array().begin();
+		trimmed.append(only);
+		trimmed.append(new String[] { "c" });
+		trimmed.append(new String[0]);
+
+		final String[] result = trimmed.finish();
+		assertArrayEquals(new String[] { "a", "b", "c" }, result);
+		assertArrayEquals(new String[] { "a", "b" }, only);
+	}
+
+	@Test
+	public void test_collectionsAppendToFirst() {
+		final Accumulator.Builder<List<String>> builder = Accumulator.<List<String>> collections().begin();
+
+		final List<String> first = new ArrayList<>(Arrays.asList("a"));
+		builder.append(first);
+		builder.append(null);
+		builder.append(Arrays.asList("b", "c"));
+
+		assertSame(first, builder.finish());
+		assertEquals(Arrays.asList("a", "b", "c"), first);
+	}
+
+	@Test
+	public void test_repeatedCollectionMatches() throws ArgException {
+		final Option<EnumSet<Level>> levels = Option.ofEnumSet("level", Level.class);
+
+		final Args args = Options.of(levels).compile()
+				.parse(new String[] { "--level=low", "--level=high,low", "--level=mid" });
+
+		assertEquals(EnumSet.allOf(Level.class), args.getValue(levels));
+		assertEquals(3, args.getMatchCount(levels));
+	}
+
+	@Test
+	public void test_onMatchReceivesEachMatch() throws ArgException {
+		final List<Object> seen = new ArrayList<>();
+
+		final Option<String[]> names = Option.of("name", String[].class).onMatch(v -> seen.add(Arrays.asList(v)));
+		final Option<EnumSet<Level>> levels = Option.ofEnumSet("level", Level.class)
+				.onMatch(v -> seen.add(EnumSet.copyOf(v)));
+		final IntOption total = Option.ofInt("total", IntAccumulator.sum());
+		total.onMatch(seen::add);
+
+		final Args args = Options.of(names, levels, total).compile()
+				.parse(new String[] { "--name=a,b", "--total=3", "--level=low", "--name=c", "--total=4",
+						"--level=high" });
+
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), 3, EnumSet.of(Level.LOW), Arrays.asList("c"), 4,
+				EnumSet.of(Level.HIGH)), seen);
+		assertArrayEquals(new String[] { "a", "b", "c" }, args.getValue(names));
+		assertEquals(EnumSet.of(Level.LOW, Level.HIGH), args.getValue(levels));
+		assertEquals(7, args.getInt(total));
+	}
+}
@@ -0,0 +1,164 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestCharParsers {
+
+	private static final String[] INTS = {
+			"0", "-0", "+0", "7", "-7", "+7", "007", "2147483647", "-2147483648", "+2147483647",
+			"2147483648", "-2147483649", "9999999999", "", "+", "-", "--1", "+-1", "1-", " 1", "1 ", "1a",
+			"0x10", "1.0", "\u0661\u0662\u0663",
+	};
+
+	private static final String[] LONGS = {
+			"0", "-1", "9223372036854775807", "-9223372036854775808", "+9223372036854775807",
+			"9223372036854775808", "-9223372036854775809", "92233720368547758070", "", "+", "-", "12e3",
+	};
+
+	private static final String[] DOUBLES = {
+			"0", "-0", "+0", "0.0", "-0.0", "1", "-1", "1.", ".5", "-.5", "1.5", "3.14159", "1e3", "1E3", "1e+3",
+			"1e-3", "-2.5e-7", "123456789012345", "1234567890123456", "12345678901234567",
+			"0.123456789012345", "0.1234567890123456", "123456789.012345", "1234567.890123456",
+			"9007199254740993", "1e22", "1e23", "1e-22", "1e-23", "123456789012345e22", "123456789012345e-22",
+			"123456789012345e-23", "4.9e-324", "1.7976931348623157e308", "1e309", "1e-400",
+			"0.000000000000000000000001", "100000000000000000000000", "00000000000000000001.5", "1e0022", "1e00001",
+			"0x1.8p1", "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "1.5d", "1.5f", " 1.5", "1.5 ", "", "+",
+			"-", ".", "e3", "1e", "1e+", "1.5.5", "1e3.5", "abc",
+	};
+
+	private static String describe(Object value) {
+		return (value instanceof Throwable) ? value.getClass().getSimpleName() : String.valueOf(value);
+	}
+
+	private static Object intOf(String s, boolean jdk) {
+		try {
+			return jdk ? Integer.parseInt(s) : CharParsers.parseInt(s);
+		} catch (NumberFormatException e) {
+			return e;
+		}
+	}
+
+	private static Object longOf(String s, boolean jdk) {
+		try {
+			return jdk ? Long.parseLong(s) : CharParsers.parseLong(s);
+		} catch (NumberFormatException e) {
+			return e;
+		}
+	}
+
+	private static Object doubleOf(String s, boolean jdk) {
+		try {
+			final double d = jdk ? Double.parseDouble(s) : CharParsers.parseDouble(s);
+
+			return Double.doubleToRawLongBits(d);
+		} catch (NumberFormatException e) {
+			return e;
+		}
+	}
+
+	@Test
+	public void test_parseIntMatchesInteger() {
+		for (final String s : INTS) {
+			assertEquals(s, describe(intOf(s, true)), describe(intOf(s, false)));
+		}
+	}
+
+	@Test
+	public void test_parseLongMatchesLong() {
+		for (final String s : INTS) {
+			assertEquals(s, describe(longOf(s, true)), describe(longOf(s, false)));
+		}
+
+		for (final String s : LONGS) {
+			assertEquals(s, describe(longOf(s, true)), describe(longOf(s, false)));
+		}
+	}
+
+	@Test
+	public void test_parseDoubleMatchesDouble() {
+		for (final String s : DOUBLES) {
+			assertEquals(s, describe(doubleOf(s, true)), describe(doubleOf(s, false)));
+		}
+	}
+
+	@Test
+	public void test_parseDoubleFastPathIsExact() {
+		final Random random = new Random(13);
+
+		for (int n = 0; n < 100_000; n++) {
+			final StringBuilder b = new StringBuilder();
+			if (random.nextBoolean()) {
+				b.append('-');
+			}
+
+			final String digits = Long.toString(random.nextLong() & Long.MAX_VALUE);
+			final int length = 1 + random.nextInt(Math.min(16, digits.length()));
+			final int point = random.nextInt(length + 1);
+			b.append(digits, 0, point).append('.').append(digits, point, length);
+			b.append('e').append(random.nextInt(49) - 24);
+
+			final String s = b.toString();
+			assertEquals(s, describe(doubleOf(s, true)), describe(doubleOf(s, false)));
+		}
+	}
+
+	@Test
+	public void test_parseBoolean() {
+		for (final String s : new String[] { "true", "TRUE", "True", "on", "ON", "1", "-1", "42", "+7" }) {
+			assertTrue(s, CharParsers.parseBoolean(s));
+		}
+
+		for (final String s : new String[] { "false", "FALSE", "off", "Off", "0", "-0", "+0", "000" }) {
+			assertFalse(s, CharParsers.parseBoolean(s));
+		}
+
+		for (final String s : new String[] { "", "yes", "no", "tru", "truex", "+", "-", "1.0", " true" }) {
+			try {
+				CharParsers.parseBoolean(s);
+				fail("expected NumberFormatException for '" + s + "'");
+
+			} catch (NumberFormatException e) {
+				assertTrue(e.getMessage(), e.getMessage().endsWith(s));
+			}
+		}
+	}
+
+	@Test
+	public void test_subRanges() {
+		final StringBuilder chars = new StringBuilder("n=-2147483648;l=9223372036854775807;d=-1.25e-3;b=off");
+
+		assertEquals(Integer.MIN_VALUE, CharParsers.parseInt(chars, 2, 13));
+		assertEquals(Long.MAX_VALUE, CharParsers.parseLong(chars, 16, 35));
+		assertEquals(-1.25e-3, CharParsers.parseDouble(chars, 38, 46), 0);
+		assertFalse(CharParsers.parseBoolean(chars, 49, 52));
+
+		/* The chars around a range are never read */
+		assertEquals(-214, CharParsers.parseInt(chars, 2, 6));
+		assertEquals(2, CharParsers.parseLong(chars, 3, 4));
+		assertEquals(1.2, CharParsers.parseDouble(chars, 39, 42), 0);
+		assertEquals(-1.0, CharParsers.parseDouble(chars, 38, 40), 0);
+
+		/* Fall backs and errors report only the range */
+		assertEquals(Double.NaN, CharParsers.parseDouble("x=NaN;", 2, 5), 0);
+		assertEquals(255.0, CharParsers.parseDouble("[0x1.fep7]", 1, 9), 0);
+		try {
+			CharParsers.parseInt(chars, 2, 2);
+			fail("expected NumberFormatException");
+
+		} catch (NumberFormatException e) {
+			assertEquals("For input string: \"\"", e.getMessage());
+		}
+
+		try {
+			CharParsers.parseInt(chars, 2, 3);
+			fail("expected NumberFormatException");
+
+		} catch (NumberFormatException e) {
+			assertEquals("For input string: \"-\"", e.getMessage());
+		}
+	}
+}
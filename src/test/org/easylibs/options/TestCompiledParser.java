@@ -0,0 +1,40 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TestCompiledParser {
+
+	@Test
+	public void test_compileOnce() {
+		final Options options = Options.of(Option.of("a"), Option.of("count", int.class));
+
+		assertSame(options.compile(), options.compile());
+	}
+
+	@Test
+	public void test_independentResults() throws ArgException {
+		final Option<Integer> count = Option.of("count", int.class);
+		final Option<Boolean> a = Option.of("a");
+		final CompiledParser parser = Options.of(a, count).compile();
+
+		final Args args1 = parser.parse(new String[] { "-a", "--count=1", "file1" });
+		final Args args2 = parser.parse(new String[] { "--count=2" });
+
+		assertEquals(Integer.valueOf(1), args1.getValue(count));
+		assertEquals(Integer.valueOf(2), args2.getValue(count));
+		assertTrue(args1.isMatched(a));
+		assertFalse(args2.isMatched(a));
+		assertEquals(Arrays.asList("file1"), args1.getOperands());
+
+		/* Unpublished results leave the options untouched */
+		assertFalse(count.isMatched());
+		assertNull(count.getValue());
+
+		args2.publish();
+		assertEquals(Integer.valueOf(2), count.getValue());
+	}
+}
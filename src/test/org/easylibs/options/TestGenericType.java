@@ -0,0 +1,133 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class TestGenericType {
+
+	public static final class Plugin {
+	}
+
+	private static final class IsolatingLoader extends ClassLoader {
+
+		private final byte[] bytes;
+
+		IsolatingLoader(byte[] bytes) {
+			super(TestGenericType.class.getClassLoader());
+			this.bytes = bytes;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			synchronized (getClassLoadingLock(name)) {
+				if (!name.equals(Plugin.class.getName())) {
+					return super.loadClass(name, resolve);
+				}
+
+				Class<?> c = findLoadedClass(name);
+				if (c == null) {
+					c = defineClass(name, bytes, 0, bytes.length);
+				}
+
+				return c;
+			}
+		}
+	}
+
+	private static byte[] classBytes(Class<?> type) throws IOException {
+		final String resource = type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class";
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (InputStream in = type.getResourceAsStream(resource)) {
+			final byte[] buffer = new byte[4096];
+			for (int n; (n = in.read(buffer)) != -1;) {
+				out.write(buffer, 0, n);
+			}
+		}
+
+		return out.toByteArray();
+	}
+
+	@Test
+	public void test_internedByIdentity() {
+		final GenericType raw = GenericType.of(Plugin.class);
+		assertSame(raw, GenericType.of(Plugin.class));
+		assertSame(raw, GenericType.of(Plugin.class, Optional.empty()));
+		assertSame(raw, GenericType.of(Plugin.class, (Class<?>) null));
+		assertNull(raw.getGenericType());
+
+		final GenericType list = GenericType.of(List.class, Plugin.class);
+		assertSame(list, GenericType.of(List.class, Optional.of(Plugin.class)));
+		assertSame(Plugin.class, list.getGenericType());
+		assertNotSame(list, GenericType.of(Set.class, Plugin.class));
+		assertNotSame(list, GenericType.of(List.class, String.class));
+		assertNotSame(raw, GenericType.of(Plugin.class, Plugin.class));
+	}
+
+	@Test
+	public void test_concurrentInterning() throws Exception {
+		final int threads = 8;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final Class<?> argument = new IsolatingLoader(classBytes(Plugin.class)).loadClass(Plugin.class.getName());
+
+			final Callable<GenericType[]> intern = () -> {
+				start.await();
+
+				return new GenericType[] {
+						GenericType.of(argument),
+						GenericType.of(List.class, argument),
+						GenericType.of(Set.class, argument) };
+			};
+
+			final List<Future<GenericType[]>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(intern));
+			}
+			start.countDown();
+
+			final GenericType[] first = results.get(0).get();
+			for (final Future<GenericType[]> result : results) {
+				final GenericType[] types = result.get();
+				for (int i = 0; i < types.length; i++) {
+					assertSame(first[i], types[i]);
+				}
+			}
+
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void test_sameNameFromDifferentLoaders() throws Exception {
+		final byte[] bytes = classBytes(Plugin.class);
+		final Class<?> a = new IsolatingLoader(bytes).loadClass(Plugin.class.getName());
+		final Class<?> b = new IsolatingLoader(bytes).loadClass(Plugin.class.getName());
+
+		assertEquals(a.getName(), b.getName());
+		assertNotSame(a, b);
+
+		assertNotSame(GenericType.of(a), GenericType.of(b));
+		assertFalse(GenericType.of(a).equals(GenericType.of(b)));
+		assertNotSame(GenericType.of(List.class, a), GenericType.of(List.class, b));
+		assertSame(a, GenericType.of(List.class, a).getGenericType());
+		assertSame(b, GenericType.of(List.class, b).getGenericType());
+		assertNotSame(GenericType.of(Plugin.class), GenericType.of(a));
+	}
+}
@@ -1,7 +1,12 @@
 package org.easylibs.options;
 
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
 import java.util.function.Predicate;
 
+import org.junit.Test;
+
 import junit.framework.TestCase;
 
 public class TestOptions {
@@ -19,6 +24,73 @@ public class TestOptions {
 		this.file = filename1 + ".txt";
 	}
 
+	@Test
+	public void test_lookupsAfterAdding() throws Exception {
+		final Option<Boolean> a = Option.of("a");
+		final Option<Integer> count = Option.of("count", int.class);
+		final Option<Boolean> accent = Option.of("\u00e9");
+		final OptionsImpl options = (OptionsImpl) Options.of(a, count, accent);
+
+		assertSame(a, options.find("a").get());
+		assertSame(count, options.get("count"));
+		assertSame(accent, options.get("\u00e9"));
+		assertFalse(options.find("c").isPresent());
+		assertEquals(0, options.indexOf('a'));
+		assertEquals(1, options.indexOf(count));
+		assertEquals(2, options.indexOf('\u00e9'));
+		assertEquals(-1, options.indexOf('c'));
+		assertEquals(-1, options.indexOf('\u00e8'));
+		assertEquals(Arrays.asList(count, a), options.getAllNamed("count", "a"));
+
+		final Option<Boolean> b = Option.of("b");
+		options.add(b);
+		assertSame(b, options.get("b"));
+		assertEquals(3, options.indexOf('b'));
+		assertEquals(0, options.indexOf('a'));
+
+		try {
+			options.add(Option.of("a"));
+			fail("expected DuplicateOptionException");
+
+		} catch (DuplicateOptionException e) {
+			assertSame(a, options.get("a"));
+		}
+
+		/* A rejected batch leaves the index untouched */
+		try {
+			options.addAll(Arrays.asList(Option.of("x"), Option.of("count")));
+			fail("expected DuplicateOptionException");
+
+		} catch (DuplicateOptionException e) {
+			assertFalse(options.find("x").isPresent());
+			assertEquals(-1, options.indexOf('x'));
+		}
+
+		try {
+			options.addAll(Arrays.asList(Option.of("y"), Option.of("y")));
+			fail("expected DuplicateOptionException");
+
+		} catch (DuplicateOptionException e) {
+			assertEquals(-1, options.indexOf('y'));
+		}
+
+		assertEquals(4, options.size());
+
+		try {
+			options.get("x");
+			fail("expected OptionNotFoundException");
+
+		} catch (OptionNotFoundException e) {
+			// expected
+		}
+
+		final Args args = options.compile().parse(new String[] { "-b", "-\u00e9", "--count=2" });
+		assertTrue(args.isMatched(b));
+		assertTrue(args.isMatched(accent));
+		assertFalse(args.isMatched(a));
+		assertEquals(Integer.valueOf(2), args.getValue(count));
+	}
+
 //	@Test
 	public void lowLevelTest() throws DuplicateOptionException, TypeMapperNotFoundException, UnrecognizedArgException,
 			InvalidArgException {
@@ -0,0 +1,543 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.easylibs.getopt.ArgumentSource;
+import org.easylibs.getopt.GetoptEvent;
+import org.easylibs.getopt.PosixGetopt;
+import org.easylibs.getopt.PosixLexer;
+import org.easylibs.getopt.PosixLongOption;
+import org.easylibs.getopt.PosixLongOption.HasArg;
+
+import org.junit.Test;
+
+public class TestPosixArgs {
+
+	private static final class Slow {
+	}
+
+	private static final class Sleepy {
+	}
+
+	private static String longMatch(Iterator<GetoptEvent> events) {
+		final GetoptEvent event = events.next();
+
+		return event.isError() ? null : event.getLongOption().getName();
+	}
+
+	private static String stderrOf(Runnable action) {
+		final PrintStream err = System.err;
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(out, true));
+		try {
+			action.run();
+		} finally {
+			System.setErr(err);
+		}
+
+		return out.toString();
+	}
+
+	@Test
+	public void test_longOptionAbbreviation() {
+		final PosixGetopt getopt = new PosixGetopt("", new PosixLongOption[] {
+				new PosixLongOption("verbose", HasArg.NO),
+				new PosixLongOption("count", HasArg.REQUIRED) });
+		getopt.setArgs(new String[] { "--verb", "--cou=3", "--c", "4", "--verbose" });
+		final Iterator<GetoptEvent> events = getopt.iterator();
+
+		assertEquals("verbose", longMatch(events));
+		assertEquals("count", longMatch(events));
+		assertEquals("3", getopt.optarg());
+		assertEquals("count", longMatch(events));
+		assertEquals("4", getopt.optarg());
+		assertEquals("verbose", longMatch(events));
+		assertFalse(events.hasNext());
+	}
+
+	@Test
+	public void test_exactLongOptionWinsOverPrefix() {
+		final PosixGetopt getopt = new PosixGetopt("", new PosixLongOption[] {
+				new PosixLongOption("verbose", HasArg.NO),
+				new PosixLongOption("verb", HasArg.NO),
+				new PosixLongOption("verbosity", HasArg.NO) });
+		getopt.setArgs(new String[] { "--verb", "--verbose", "--verbos", "--verbosi" });
+		final Iterator<GetoptEvent> events = getopt.iterator();
+
+		assertEquals("verb", longMatch(events));
+		assertEquals("verbose", longMatch(events));
+		assertNull(longMatch(events));
+		assertEquals("verbosity", longMatch(events));
+	}
+
+	@Test
+	public void test_ambiguousLongOptionPrefix() {
+		final PosixGetopt getopt = new PosixGetopt("", new PosixLongOption[] {
+				new PosixLongOption("verbose", HasArg.NO),
+				new PosixLongOption("version", HasArg.NO) });
+		getopt.setPrintError(true);
+		getopt.setArgs(new String[] { "--ver", "--verx", "--vers" });
+		final Iterator<GetoptEvent> events = getopt.iterator();
+
+		assertTrue(stderrOf(() -> assertNull(longMatch(events))).contains("option 'ver' is ambiguous"));
+		assertTrue(stderrOf(() -> assertNull(longMatch(events))).contains("unrecognized option 'verx'"));
+		assertEquals("", stderrOf(() -> assertEquals("version", longMatch(events))));
+	}
+
+	private static String shortEvents(PosixGetopt getopt, String... argv) {
+		getopt.setArgs(argv);
+
+		final StringBuilder b = new StringBuilder();
+		getopt.stream().forEach(e -> {
+			if (b.length() != 0) {
+				b.append(' ');
+			}
+
+			if (e.getKind() == GetoptEvent.Kind.OPERAND) {
+				b.append(e.getArgument());
+
+			} else if (e.isError()) {
+				b.append(e.getCode()).append(e.getOptionChar());
+
+			} else {
+				b.append(e.getCode());
+				if (e.getArgument() != null) {
+					b.append('=').append(e.getArgument());
+				}
+			}
+		});
+
+		return b.toString();
+	}
+
+	@Test
+	public void test_shortOptionGroups() {
+		final PosixGetopt getopt = new PosixGetopt("ab:c::");
+
+		assertEquals("a b=val", shortEvents(getopt, "-ab", "val"));
+		assertEquals("b=val b=-", shortEvents(getopt, "-bval", "-b-"));
+		assertEquals("a c", shortEvents(getopt, "-ac"));
+		assertEquals("c=x a c", shortEvents(getopt, "-cx", "-a", "-c"));
+		assertEquals("a a", shortEvents(getopt, "-aa"));
+
+		/* An option with an argument must end its group, the rest of the group is still scanned */
+		final String messages = stderrOf(() -> assertEquals("a :b ?x a", shortEvents(getopt, "-abx", "-a")));
+		assertTrue(messages.contains("option 'b' takes an agrument and must be at the end of a group"));
+	}
+
+	@Test
+	public void test_shortOptionMissingArgument() {
+		final PosixGetopt quiet = new PosixGetopt(":ab:");
+		final PosixGetopt loud = new PosixGetopt("ab:");
+		final String[] argv = { "-a", "-:", "-x", "-b" };
+
+		/* A leading ':' is not an option char and silences error messages */
+		assertEquals("", stderrOf(() -> assertEquals("a ?: ?x :b", shortEvents(quiet, argv))));
+		final String messages = stderrOf(() -> assertEquals("a ?: ?x :b", shortEvents(loud, argv)));
+		assertTrue(messages.contains("unrecognized option ':'"));
+		assertTrue(messages.contains("unrecognized option 'x'"));
+		assertTrue(messages.contains("option 'b' missing required argument"));
+	}
+
+	@Test
+	public void test_nonAsciiShortOptions() {
+		final PosixGetopt getopt = new PosixGetopt("\u00e9\u00fc:\u4e2d::");
+
+		assertEquals("\u00e9 \u00fc=v \u00fc=w \u4e2d \u4e2d=x", shortEvents(getopt,
+				"-\u00e9\u00fc", "v", "-\u00fcw", "-\u4e2d", "-\u4e2dx"));
+		assertTrue(stderrOf(() -> assertEquals("?\u00e8 \u00e9", shortEvents(getopt, "-\u00e8", "-\u00e9")))
+				.contains("unrecognized option"));
+	}
+
+	@Test
+	public void test_lexerClassification() {
+		final String[] argv = { "", "file", "-", "--", "-a", "-abc", "-5", "-=", "--x", "--x=", "--x=1=2", "--=x",
+				"---", "x--", "-x=y" };
+		final byte[] kinds = {
+				PosixLexer.OPERAND, PosixLexer.OPERAND, PosixLexer.DASH, PosixLexer.DOUBLE_DASH, PosixLexer.SHORT,
+				PosixLexer.SHORT, PosixLexer.SHORT, PosixLexer.SHORT, PosixLexer.LONG, PosixLexer.LONG,
+				PosixLexer.LONG, PosixLexer.LONG, PosixLexer.LONG, PosixLexer.OPERAND, PosixLexer.SHORT };
+		final int[] equals = { -1, -1, -1, -1, -1, -1, -1, -1, -1, 3, 3, 2, -1, -1, -1 };
+
+		final PosixLexer lexer = new PosixLexer(argv);
+		final PosixLexer incremental = new PosixLexer();
+		for (int round = 0; round < 3; round++) {
+			for (final String arg : argv) {
+				incremental.add(arg);
+			}
+		}
+
+		assertEquals(argv.length, lexer.size());
+		assertEquals(argv.length * 3, incremental.size());
+		for (int i = 0; i < argv.length; i++) {
+			assertEquals(argv[i], kinds[i], PosixLexer.classify(argv[i]));
+			assertEquals(argv[i], kinds[i], lexer.kind(i));
+			assertEquals(argv[i], equals[i], lexer.equalsPosition(i));
+			assertEquals(argv[i], kinds[i], incremental.kind(i + (2 * argv.length)));
+			assertEquals(argv[i], equals[i], incremental.equalsPosition(i + (2 * argv.length)));
+		}
+
+		assertEquals(5, PosixLexer.findEquals("--key=a=b"));
+		assertEquals(-1, PosixLexer.findEquals("--key"));
+	}
+
+	@Test
+	public void test_dashAndNegativeNumberArgs() {
+		final PosixGetopt getopt = new PosixGetopt(":an:");
+
+		/* A lone '-' is an operand, reported after the options, a negative number is a group of short options */
+		assertEquals("a ?5 ?1 -", shortEvents(getopt, "-a", "-", "-51"));
+		/* A separate argument never starts with '-', a negative value has to be embedded */
+		assertEquals(":n ?5 a", shortEvents(getopt, "-n", "-5", "-a"));
+		assertEquals("n=-5", shortEvents(getopt, "-n-5"));
+
+		/* "--" ends option scanning, it and everything after it are operands */
+		assertEquals("a -- - -a --x", shortEvents(getopt, "-a", "--", "-", "-a", "--x"));
+	}
+
+	@Test
+	public void test_longOptionTokenizing() {
+		final PosixGetopt getopt = new PosixGetopt("", new PosixLongOption[] {
+				new PosixLongOption("name", HasArg.OPTIONAL),
+				new PosixLongOption("count", HasArg.REQUIRED) });
+		getopt.setArgs(new String[] { "--name", "--name=value", "--name=", "--=x", "--count=", "--count=a=b",
+				"--count", "=5" });
+		final Iterator<GetoptEvent> events = getopt.iterator();
+
+		GetoptEvent event = events.next();
+		assertEquals("name", event.getLongOption().getName());
+		assertEquals("--name", event.getMatch());
+		assertNull(event.getArgument());
+
+		event = events.next();
+		assertEquals("name", event.getLongOption().getName());
+		assertEquals("value", event.getArgument());
+
+		event = events.next();
+		assertEquals("name", event.getLongOption().getName());
+		assertEquals("", event.getArgument());
+
+		event = events.next();
+		assertTrue(event.isError());
+		assertEquals(PosixGetopt.ERROR_UNRECOGNIZED_OPT, event.getCode());
+		assertEquals("--=x", event.getMatch());
+
+		event = events.next();
+		assertEquals("count", event.getLongOption().getName());
+		assertEquals("", event.getArgument());
+
+		event = events.next();
+		assertEquals("count", event.getLongOption().getName());
+		assertEquals("a=b", event.getArgument());
+
+		event = events.next();
+		assertEquals("count", event.getLongOption().getName());
+		assertEquals("=5", event.getArgument());
+		assertEquals(6, event.getIndex());
+
+		assertFalse(events.hasNext());
+	}
+
+	@Test
+	public void test_longOptionScanDoesNotAllocate() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return;
+		}
+
+		final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+		if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+			return;
+		}
+
+		final String[] argv = new String[10_000];
+		for (int i = 0; i < argv.length; i++) {
+			argv[i] = ((i & 1) == 0) ? "--verbose" : "--verb";
+		}
+
+		final PosixGetopt getopt = new PosixGetopt("v", new PosixLongOption[] {
+				new PosixLongOption("verbose", HasArg.NO, 'v'),
+				new PosixLongOption("version", HasArg.NO) });
+
+		long allocated = Long.MAX_VALUE;
+		for (int round = 0; round < 5; round++) {
+			getopt.setArgs(argv);
+
+			final long before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			int count = 0;
+			while (getopt.getopt() == 'v') {
+				count++;
+			}
+			final long after = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+			assertEquals(argv.length, count);
+			allocated = Math.min(allocated, after - before);
+		}
+
+		/* Allow for the accounting call itself, but not for anything per option */
+		assertTrue("allocated " + allocated + " bytes", allocated < argv.length);
+	}
+
+	@Test
+	public void test_longOptionAmbiguityIsResolvedAtConstruction() {
+		final PosixLongOption first = new PosixLongOption("verbose", HasArg.NO);
+		final PosixLongOption duplicate = new PosixLongOption("verbose", HasArg.REQUIRED);
+		final PosixGetopt template = new PosixGetopt("", new PosixLongOption[] {
+				first, duplicate });
+
+		/* A duplicate name keeps the first option and does not make its prefixes ambiguous */
+		final PosixGetopt getopt = new PosixGetopt(template);
+		getopt.setArgs(new String[] { "--verb", "--verbose" });
+		final Iterator<GetoptEvent> events = getopt.iterator();
+		assertSame(first, events.next().getLongOption());
+		assertSame(first, events.next().getLongOption());
+
+		/* Declaration order does not change which prefixes are ambiguous */
+		for (final String[] names : new String[][] { { "verbose", "version" }, { "version", "verbose" } }) {
+			final PosixGetopt ordered = new PosixGetopt("", new PosixLongOption[] {
+					new PosixLongOption(names[0], HasArg.NO),
+					new PosixLongOption(names[1], HasArg.NO) });
+			ordered.setArgs(new String[] { "--v", "--verb", "--vers" });
+			final Iterator<GetoptEvent> orderedEvents = ordered.iterator();
+
+			assertNull(longMatch(orderedEvents));
+			assertEquals("verbose", longMatch(orderedEvents));
+			assertEquals("version", longMatch(orderedEvents));
+		}
+
+		try {
+			Options.of(Option.of("verbose"), Option.of("version")).compile().parse(new String[] { "--ver" });
+			fail("expected UnrecognizedArgException");
+
+		} catch (UnrecognizedArgException e) {
+			// expected
+
+		} catch (ArgException e) {
+			fail(e.toString());
+		}
+	}
+
+	@Test
+	public void test_interleavedOperands() throws ArgException {
+		final String[] argv = { "f1", "-a", "f2", "--count", "3", "f3" };
+		final String[] copy = argv.clone();
+
+		final Option<Integer> count = Option.of("count", int.class);
+		final Args args = Options.of(Option.of("a"), count).compile().parse(argv);
+
+		assertEquals(Arrays.asList("f1", "f2", "f3"), args.getUnmatchedArgs());
+		assertEquals(Arrays.asList("-a", "--count", "3"), args.getMatchedArgs());
+		assertEquals(Integer.valueOf(3), args.getValue(count));
+		assertArrayEquals(copy, argv);
+	}
+
+	@Test
+	public void test_doubleDashEndsOptions() throws ArgException {
+		final Option<Boolean> a = Option.of("a");
+		final Args args = Options.of(a, Option.of("b")).compile()
+				.parse(new String[] { "f1", "-a", "--", "-b", "f2" });
+
+		assertTrue(args.isMatched(a));
+		assertEquals(Arrays.asList("f1", "--", "-b", "f2"), args.getUnmatchedArgs());
+	}
+
+	@Test
+	public void test_responseFiles() throws ArgException, IOException {
+		final Path inner = Files.createTempFile("inner", ".rsp");
+		final Path outer = Files.createTempFile("outer", ".rsp");
+		try {
+			Files.write(inner, "-a 'f 2'".getBytes(StandardCharsets.UTF_8));
+			Files.write(outer, ("--count 3\n@" + inner + " f\\ 3").getBytes(StandardCharsets.UTF_8));
+
+			final Option<Boolean> a = Option.of("a");
+			final Option<Integer> count = Option.of("count", int.class);
+			final ArgumentSource source = ArgumentSource.withResponseFiles(
+					ArgumentSource.of("f1", "@" + outer));
+
+			final Args args = Options.of(a, count).compile().parse(source);
+
+			assertTrue(args.isMatched(a));
+			assertEquals(Integer.valueOf(3), args.getValue(count));
+			assertEquals(Arrays.asList("f1", "f 2", "f 3"), args.getUnmatchedArgs());
+
+		} finally {
+			Files.delete(inner);
+			Files.delete(outer);
+		}
+	}
+
+	@Test
+	public void test_responseFileArgsAreNotDecoded() throws IOException {
+		final Path file = Files.createTempFile("args", ".rsp");
+		try {
+			Files.write(file, "--count=3 'f 2' caf\u00e9".getBytes(StandardCharsets.UTF_8));
+
+			final ArgumentSource source = ArgumentSource.withResponseFiles(ArgumentSource.of("@" + file));
+
+			final CharSequence count = source.next();
+			assertFalse(count instanceof String);
+			assertEquals("--count=3", count.toString());
+			assertEquals("f 2", source.next().toString());
+			assertEquals("caf\u00e9", source.next().toString());
+			assertNull(source.next());
+
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void test_nulDelimitedSource() throws ArgException {
+		final byte[] cmdline = "f1\0--count=3\0-a\0caf\u00e9\0".getBytes(StandardCharsets.UTF_8);
+
+		final Option<Integer> count = Option.of("count", int.class);
+		final Args args = Options.of(Option.of("a"), count).compile()
+				.parse(ArgumentSource.ofNulDelimited(ByteBuffer.wrap(cmdline)));
+
+		assertEquals(Integer.valueOf(3), args.getValue(count));
+		assertEquals(Arrays.asList("f1", "caf\u00e9"), args.getUnmatchedArgs());
+		assertArrayEquals(new String[] { "f1", "--count=3", "-a", "caf\u00e9" }, args.getArgs());
+	}
+
+	@Test
+	public void test_missingLongArgReportsOption() throws UnrecognizedArgException {
+		final Option<Integer> count = Option.of("count", int.class);
+		final CompiledParser parser = Options.of(Option.of("a"), count).compile();
+
+		try {
+			parser.parse(new String[] { "-a", "--count" });
+			fail("expected InvalidArgException");
+
+		} catch (InvalidArgException e) {
+			assertSame(count, e.getOption());
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void test_lazyMapping() throws ArgException {
+		final int[] mapped = new int[1];
+		final Option<Class> type = Option.of("type", Class.class).onMatch(c -> mapped[0]++);
+		final Option<Class> bad = Option.of("bad", Class.class);
+
+		final Args args = Options.of(type, bad).compile()
+				.parseLazy(new String[] { "--type=java.lang.String", "--bad=no.such.Clazz" });
+
+		assertEquals(0, mapped[0]);
+		assertEquals(1, args.getMatchCount(bad));
+
+		assertSame(String.class, args.getValue(type));
+		assertSame(String.class, args.getValue(type));
+		assertEquals(1, mapped[0]);
+
+		try {
+			args.getValue(bad);
+			fail("expected UncheckedArgException");
+
+		} catch (UncheckedArgException e) {
+			assertSame(bad, e.getCause().getOption());
+		}
+
+		try {
+			args.resolveAll();
+			fail("expected InvalidArgException");
+
+		} catch (InvalidArgException e) {
+			assertSame(bad, e.getOption());
+		}
+	}
+
+	@Test
+	public void test_asyncMapping() throws Exception {
+		final Registration registration = TypeRegistry.register(Slow.class, s -> {
+			Thread.sleep(5000);
+			return new Slow();
+		});
+
+		final Option<int[]> ids = Option.of("ids", int[].class);
+		final Option<Slow> slow = Option.of("slow", Slow.class);
+		final CompiledParser parser = Options.of(ids, slow).compile();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final Args args = parser.parseAsync(new String[] { "--ids=1,2", "--ids=3", "--ids=4" }, executor)
+					.get(5, TimeUnit.SECONDS);
+			assertArrayEquals(new int[] { 1, 2, 3, 4 }, args.getValue(ids));
+
+			try {
+				parser.parseAsync(new String[] { "--ids=1", "--slow=x" }, executor, 50, TimeUnit.MILLISECONDS)
+						.get(5, TimeUnit.SECONDS);
+				fail("expected InvalidArgException");
+
+			} catch (ExecutionException e) {
+				assertSame(slow, ((InvalidArgException) e.getCause()).getOption());
+				assertTrue(e.getCause().getCause() instanceof TimeoutException);
+			}
+
+		} finally {
+			executor.shutdownNow();
+			registration.remove();
+		}
+	}
+
+	@Test
+	public void test_asyncTimeoutExcludesQueueing() throws Exception {
+		final Registration sleepy = TypeRegistry.register(Sleepy.class, s -> {
+			Thread.sleep(50);
+			return new Sleepy();
+		});
+		final Registration slow = TypeRegistry.register(Slow.class, s -> {
+			Thread.sleep(5000);
+			return new Slow();
+		});
+
+		final Option<Sleepy> sleepyOption = Option.of("sleepy", Sleepy.class);
+		final Option<Slow> slowOption = Option.of("slow", Slow.class);
+		final CompiledParser parser = Options.of(sleepyOption, slowOption).compile();
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final String[] argv = new String[8];
+			Arrays.fill(argv, "--sleepy=x");
+
+			final Args args = parser.parseAsync(argv, executor, 200, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS);
+			assertEquals(8, args.getMatchCount(sleepyOption));
+
+			try {
+				parser.parseAsync(new String[] { "--slow=x" }, executor, 50, TimeUnit.MILLISECONDS)
+						.get(5, TimeUnit.SECONDS);
+				fail("expected InvalidArgException");
+
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause().getCause() instanceof TimeoutException);
+			}
+
+			/* The timed out mapping was interrupted, freeing the only thread */
+			final long start = System.nanoTime();
+			parser.parseAsync(new String[] { "--sleepy=x" }, executor).get(5, TimeUnit.SECONDS);
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+		} finally {
+			executor.shutdownNow();
+			sleepy.remove();
+			slow.remove();
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class TestPrimitiveOptions {
+
+	private enum Codec {
+		H264, VP9, AV1
+	}
+
+	@Test
+	public void test_counterAndSum() throws ArgException {
+		final IntOption verbose = Option.ofCounter("v");
+		final IntOption total = Option.ofInt("add", IntAccumulator.sum());
+		final LongOption size = Option.ofLong("size");
+
+		final Args args = Options.of(verbose, total, size).compile()
+				.parse(new String[] { "-vvv", "--add", "2", "--add=5", "--size", "5000000000" });
+
+		assertEquals(3, args.getInt(verbose));
+		assertEquals(7, args.getInt(total));
+		assertEquals(5000000000L, args.getLong(size));
+		assertEquals(Integer.valueOf(7), args.getValue(total));
+
+		args.publish();
+		assertEquals(3, verbose.getInt());
+	}
+
+	@Test
+	public void test_unmatchedDefaults() throws ArgException {
+		final DoubleOption ratio = Option.ofDouble("ratio");
+		final BooleanOption force = Option.ofBoolean("force");
+
+		final Args args = Options.of(ratio, force).compile().parse(new String[] { "--force" });
+
+		assertEquals(0.0, args.getDouble(ratio), 0.0);
+		assertNull(args.getValue(ratio));
+		assertTrue(args.getBoolean(force));
+	}
+
+	@Test
+	public void test_genericMapperMappingToNull() throws ArgException {
+		final IntOption total = Option.ofInt("add", IntAccumulator.sum());
+		final DoubleOption ratio = Option.ofDouble("ratio");
+
+		final Args args = new Options.Builder()
+				.mapType(int.class, s -> s.equals("none") ? null : Integer.valueOf(s))
+				.mapType(double.class, s -> s.equals("none") ? null : Double.valueOf(s))
+				.using(total)
+				.using(ratio)
+				.build()
+				.compile()
+				.parse(new String[] { "--add=2", "--add=none", "--add=5", "--ratio=none" });
+
+		assertEquals(7, args.getInt(total));
+		assertEquals(0.0, args.getDouble(ratio), 0.0);
+		assertEquals(Double.valueOf(0.0), args.getValue(ratio));
+	}
+
+	@Test
+	public void test_primitiveArraysAndLists() throws ArgException {
+		final Option<int[]> ids = Option.of("ids", int[].class);
+		final Option<double[]> weights = Option.of("weights", double[].class);
+		final Option<IntList> ports = Option.of("ports", IntList.class);
+
+		final Args args = Options.of(ids, weights, ports).compile()
+				.parse(new String[] { "--ids=1,2,3", "--ids=-4,5,", "--weights=0.5,1e3", "--ports=80,443",
+						"--ports=8080" });
+
+		assertArrayEquals(new int[] { 1, 2, 3, -4, 5 }, args.getValue(ids));
+		assertArrayEquals(new double[] { 0.5, 1000.0 }, args.getValue(weights), 0.0);
+		assertArrayEquals(new int[] { 80, 443, 8080 }, args.getValue(ports).toIntArray());
+	}
+
+	@Test
+	public void test_primitiveListsAreMutable() {
+		final IntList ints = new IntList(1);
+		for (int i = 0; i < 10; i++) {
+			ints.addInt(i);
+		}
+
+		ints.add(0, -1);
+		ints.addInt(11, 10);
+		ints.addInt(5, 42);
+		assertEquals(13, ints.size());
+		assertEquals(42, ints.removeInt(5));
+		assertEquals(Integer.valueOf(-1), ints.remove(0));
+		assertTrue(ints.remove(Integer.valueOf(10)));
+		assertFalse(ints.remove(Integer.valueOf(10)));
+		assertTrue(ints.removeIf(i -> (i % 2) == 1));
+		assertArrayEquals(new int[] { 0, 2, 4, 6, 8 }, ints.toIntArray());
+
+		final Iterator<Integer> it = ints.iterator();
+		while (it.hasNext()) {
+			if (it.next() < 5) {
+				it.remove();
+			}
+		}
+		assertArrayEquals(new int[] { 6, 8 }, ints.toIntArray());
+
+		ints.subList(0, 1).clear();
+		assertEquals(Arrays.asList(8), ints);
+
+		try {
+			ints.add(3, 1);
+			fail("expected IndexOutOfBoundsException");
+
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+		try {
+			ints.getInt(-1);
+			fail("expected IndexOutOfBoundsException");
+
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+		final LongList longs = new LongList();
+		longs.addAll(Arrays.asList(1L, 2L, 3L));
+		longs.add(1, 5000000000L);
+		assertEquals(2L, longs.removeLong(2));
+		longs.removeIf(l -> l == 1L);
+		assertArrayEquals(new long[] { 5000000000L, 3L }, longs.toLongArray());
+
+		final DoubleList doubles = new DoubleList(0);
+		doubles.addDouble(0.5);
+		doubles.addDouble(0, 0.25);
+		final DoubleList copy = new DoubleList();
+		copy.addAll(doubles);
+		copy.addAll(doubles);
+		assertEquals(0.25, copy.removeDouble(2), 0.0);
+		assertArrayEquals(new double[] { 0.25, 0.5, 0.5 }, copy.toDoubleArray(), 0.0);
+		assertEquals(Arrays.asList(0.25, 0.5, 0.5), copy);
+	}
+
+	@Test
+	public void test_enumSetAndMask() throws ArgException {
+		final Option<EnumSet<Codec>> codecs = Option.ofEnumSet("codecs", Codec.class);
+		final LongOption mask = Option.ofEnumMask("mask", Codec.class);
+
+		final Args args = Options.of(codecs, mask).compile()
+				.parse(new String[] { "--codecs=vp9", "--codecs=h264,VP9", "--mask=av1", "--mask=h264,vp9" });
+
+		assertEquals(EnumSet.of(Codec.H264, Codec.VP9), args.getValue(codecs));
+		assertEquals((1L << Codec.AV1.ordinal()) | (1L << Codec.H264.ordinal()) | (1L << Codec.VP9.ordinal()),
+				args.getLong(mask));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_enumMaskMapperIsFixed() throws ArgException, InterruptedException {
+		final LongOption mask = Option.ofEnumMask("mask", Codec.class);
+		final CompiledParser parser = Options.of(mask).compile();
+
+		try {
+			((IsMutableOption<Long>) mask).setMapper((LongTypeMapper) CharParsers::parseLong);
+			fail("expected UnsupportedOperationException");
+
+		} catch (UnsupportedOperationException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("'mask'"));
+		}
+
+		/* The mask is built per parse, so threads sharing the parser see only their own names */
+		final Thread[] threads = new Thread[4];
+		final long[] masks = new long[threads.length];
+		for (int t = 0; t < threads.length; t++) {
+			final int n = t;
+			final String arg = ((n % 2) == 0) ? "--mask=h264" : "--mask=vp9,av1";
+			threads[t] = new Thread(() -> {
+				long m = 0;
+				try {
+					for (int i = 0; i < 10_000; i++) {
+						m |= parser.parse(new String[] { arg }).getLong(mask);
+					}
+				} catch (ArgException e) {
+					throw new IllegalStateException(e);
+				}
+				masks[n] = m;
+			});
+			threads[t].start();
+		}
+
+		for (int t = 0; t < threads.length; t++) {
+			threads[t].join();
+			assertEquals(((t % 2) == 0)
+					? (1L << Codec.H264.ordinal())
+					: ((1L << Codec.VP9.ordinal()) | (1L << Codec.AV1.ordinal())), masks[t]);
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class TestTypeRegistry {
+
+	private interface Shape {
+	}
+
+	private static class Circle implements Shape {
+	}
+
+	private static final class Disc extends Circle {
+	}
+
+	private enum Level {
+		DEBUG, info, Warn
+	}
+
+	private enum Grade {
+		PASS, FAIL
+	}
+
+	@Test
+	public void test_childRegistryIsolation() throws ArgException {
+		final TypeMapper<Integer> global = TypeRegistry.global().get(Integer.class);
+
+		final Option<Integer> hex = Option.of("hex", Integer.class);
+		final Args args = new Options.Builder()
+				.mapType(Integer.class, s -> Integer.parseInt(s, 16))
+				.using(hex)
+				.build()
+				.compile()
+				.parse(new String[] { "--hex=ff" });
+
+		assertEquals(Integer.valueOf(255), args.getValue(hex));
+		assertSame(global, TypeRegistry.global().get(Integer.class));
+
+		final TypeRegistry child = TypeRegistry.global().child();
+		assertSame(global, child.get(Integer.class));
+
+		final Registration registration = child.set(Integer.class, Integer::valueOf);
+		assertNotSame(global, child.get(Integer.class));
+
+		registration.remove();
+		assertSame(global, child.get(Integer.class));
+	}
+
+	@Test
+	public void test_childCreatesItsOwnComposites() throws ArgException {
+		final Option<Integer[]> decimal = Option.of("dec", Integer[].class);
+		final Args global = Options.of(decimal).compile().parse(new String[] { "--dec=10,16" });
+		assertArrayEquals(new Integer[] { 10, 16 }, global.getValue(decimal));
+
+		final Option<Integer[]> hex = Option.of("hex", Integer[].class);
+		final Args args = new Options.Builder()
+				.mapType(Integer.class, s -> Integer.parseInt(s, 16))
+				.using(hex)
+				.build()
+				.compile()
+				.parse(new String[] { "--hex=ff,10" });
+
+		assertArrayEquals(new Integer[] { 255, 16 }, args.getValue(hex));
+
+		final TypeRegistry child = TypeRegistry.global().child();
+		final TypeMapper<Integer[]> before = child.getOrElseAutoCreate(Integer[].class, Optional.empty());
+		final Registration registration = child.set(Integer.class, s -> Integer.parseInt(s, 16));
+		try {
+			final TypeMapper<Integer[]> after = child.getOrElseAutoCreate(Integer[].class, Optional.empty());
+			assertNotSame(before, after);
+			assertArrayEquals(new Integer[] { 255 }, after.mapFrom("ff"));
+
+		} catch (Throwable e) {
+			throw new AssertionError(e);
+
+		} finally {
+			registration.remove();
+		}
+	}
+
+	@Test
+	public void test_lookupTypeByName() {
+		final TypeRegistry child = TypeRegistry.global().child();
+		assertSame(Integer.class, child.lookupType("java.lang.Integer"));
+		assertSame(Integer.class, child.lookupType("Integer"));
+		assertSame(Integer.class, child.lookupTypeIgnoreCase("integer"));
+		assertNull(child.lookupType("Circle"));
+
+		final Registration registration = child.set(Circle.class, s -> new Circle());
+		assertSame(Circle.class, child.lookupType("Circle"));
+		assertSame(Circle.class, child.lookupType(Circle.class.getName()));
+		assertSame(Circle.class, child.lookupTypeIgnoreCase("CIRCLE"));
+
+		registration.remove();
+		assertNull(child.lookupType("Circle"));
+		assertNull(child.lookupTypeIgnoreCase("circle"));
+	}
+
+	@Test
+	public void test_lookupAutoCreatedTypeByName() {
+		final TypeRegistry child = TypeRegistry.global().child();
+		assertNull(child.lookupType("Grade"));
+		assertNull(child.lookupTypeIgnoreCase("grade"));
+
+		/* An enum used only as an option type is found once its mapper is created */
+		assertNotNull(child.getOrElseAutoCreate(Grade.class, Optional.empty()));
+		assertSame(Grade.class, child.lookupType("Grade"));
+		assertSame(Grade.class, child.lookupType(Grade.class.getName()));
+		assertSame(Grade.class, child.lookupTypeIgnoreCase("GRADE"));
+
+		/* Registering and removing a mapper for the type keeps the auto-created one indexed */
+		child.set(Grade.class, s -> Grade.PASS).remove();
+		assertSame(Grade.class, child.lookupTypeIgnoreCase("grade"));
+	}
+
+	@Test
+	public void test_concurrentRegistrationsKeepNamesConsistent() throws Exception {
+		final TypeRegistry child = TypeRegistry.global().child();
+		final Thread[] threads = new Thread[4];
+
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 2000; i++) {
+					/* A distinct mapper each time, so that removals race with replacements */
+					final Circle circle = new Circle();
+					child.set(Circle.class, s -> circle).remove();
+				}
+			});
+			threads[t].start();
+		}
+
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		assertNull(child.get(Circle.class, Optional.empty()));
+		assertNull(child.lookupType("Circle"));
+		assertNull(child.lookupTypeIgnoreCase("circle"));
+
+		final Registration registration = child.set(Circle.class, s -> new Circle());
+		assertSame(Circle.class, child.lookupType("Circle"));
+		registration.remove();
+	}
+
+	@Test
+	public void test_enumLookupIgnoresCase() throws Throwable {
+		final TypeMapper<Level> mapper = TypeRegistry.global().getOrElseAutoCreate(Level.class, Optional.empty());
+
+		assertSame(Level.DEBUG, mapper.mapFrom("debug"));
+		assertSame(Level.info, mapper.mapFrom("INFO"));
+		assertSame(Level.Warn, mapper.mapFrom("wArN"));
+
+		try {
+			mapper.mapFrom("trace");
+			fail("expected IllegalArgumentException");
+
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().endsWith("Level.trace"));
+		}
+	}
+
+	@Test
+	public void test_memoizedMapper() throws Throwable {
+		final MemoizedTypeMapper<StringBuilder> mapper = ((TypeMapper<StringBuilder>) StringBuilder::new).memoized(2);
+
+		final StringBuilder a = mapper.mapFrom("a");
+		assertSame(a, mapper.mapFrom("a"));
+		assertEquals(1, mapper.getHitCount());
+		assertEquals(1, mapper.getMissCount());
+
+		mapper.mapFrom("b");
+		mapper.mapFrom("c");
+		assertEquals(2, mapper.size());
+		assertNotSame(a, mapper.mapFrom("a"));
+	}
+
+	@Test
+	public void test_supertypeMappers() throws Throwable {
+		final TypeRegistry registry = TypeRegistry.global().child();
+
+		registry.set(Shape.class, new TypeMapper<Shape>() {
+
+			@Override
+			public Shape mapFrom(String value) {
+				return new Disc();
+			}
+
+			@Override
+			public int priority() {
+				return 1;
+			}
+		});
+
+		assertTrue(registry.getOrElseAutoCreate(Disc.class, Optional.empty()).mapFrom("x") instanceof Disc);
+
+		final Registration circles = registry.set(Circle.class, s -> new Circle());
+		assertTrue(registry.getOrElseAutoCreate(Disc.class, Optional.empty()).mapFrom("x") instanceof Disc);
+
+		circles.remove();
+		registry.set(Circle.class, new TypeMapper<Circle>() {
+
+			@Override
+			public Circle mapFrom(String value) {
+				return new Circle();
+			}
+
+			@Override
+			public int priority() {
+				return 2;
+			}
+		});
+
+		try {
+			registry.getOrElseAutoCreate(Disc.class, Optional.empty()).mapFrom("x");
+			fail("expected ClassCastException");
+
+		} catch (ClassCastException e) {
+		}
+
+		final Accumulator<CharSequence> concat = (a, b) -> (a == null) ? b : new StringBuilder(a).append(b);
+		registry.set(CharSequence.class, StringBuilder::new, concat);
+
+		final Accumulator.Builder<StringBuilder> builder = registry
+				.getOrElseAutoCreate(StringBuilder.class, Optional.empty())
+				.accumulator()
+				.begin();
+		builder.append(new StringBuilder("a"));
+		builder.append(new StringBuilder("b"));
+
+		assertEquals("ab", builder.finish().toString());
+	}
+}
@@ -0,0 +1,49 @@
+package org.easylibs.options;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestValueTokenizer {
+
+	private static List<String> tokenize(ValueTokenizer tokenizer, String value) throws Throwable {
+		final List<String> list = new ArrayList<>();
+		tokenizer.tokenize(value, (i, chars, start, end) -> list.add(chars.subSequence(start, end).toString()));
+
+		return list;
+	}
+
+	@Test
+	public void test_quotesEscapesAndTrim() throws Throwable {
+		final ValueTokenizer tokenizer = ValueTokenizer.builder()
+				.quote('"')
+				.escape('\\')
+				.trim(true)
+				.build();
+
+		assertEquals(Arrays.asList("a", "b,c", " d ", "e,f", ""),
+				tokenize(tokenizer, " a ,\"b,c\",\" d \",e\\,f,\"\""));
+		assertEquals(3, tokenizer.count("a,\"b,c\",d,,"));
+
+		assertEquals(Arrays.asList("", "a", "b"), tokenize(ValueTokenizer.COMMA, ",a,b,,"));
+		assertEquals(Arrays.asList("a", ""), tokenize(ValueTokenizer.builder().keepTrailingEmpty(true).build(), "a,"));
+	}
+
+	@Test
+	public void test_splitWith() throws ArgException {
+		final Option<String[]> names = Option.of("names", String[].class)
+				.splitWith(ValueTokenizer.builder().delimiter(';').quote('\'').build());
+		final Option<int[]> ids = Option.of("ids", int[].class)
+				.splitWith(ValueTokenizer.builder().delimiter(':').build());
+
+		final Args args = Options.of(names, ids).compile()
+				.parse(new String[] { "--names=a;'b;c'", "--ids=1:2", "--ids", "3" });
+
+		assertArrayEquals(new String[] { "a", "b;c" }, args.getValue(names));
+		assertArrayEquals(new int[] { 1, 2, 3 }, args.getValue(ids));
+	}
+}